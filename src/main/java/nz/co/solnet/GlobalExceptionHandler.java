@@ -17,6 +17,11 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import nz.co.solnet.api.TaskNotFoundException;
+import nz.co.solnet.idempotency.IdempotencyConflictException;
+import nz.co.solnet.idempotency.InvalidIdempotencyKeyException;
+import nz.co.solnet.ratelimit.RequestThrottledException;
+import nz.co.solnet.tenant.InvalidTenantException;
+import nz.co.solnet.tenant.TenantQuotaExceededException;
 
 /**
  * Global error handling component for exceptions thrown during operation of the API.
@@ -56,4 +61,87 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		
 		return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
 	}
+
+	/**
+	 * Handles {@link IdempotencyConflictException} thrown when a request with the same
+	 * idempotency key is still being processed.
+	 * @param ex the exception to handle
+	 * @return Conflict (status code 409)
+	 */
+	@ExceptionHandler(value = { IdempotencyConflictException.class })
+	protected ResponseEntity<Object> handleIdempotencyConflictException(IdempotencyConflictException ex) {
+
+		List<String> errors = Arrays.asList(ex.getMessage());
+		Map<String, List<String>> body = new HashMap<>();
+		body.put("errors", errors);
+
+		return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+	}
+
+	/**
+	 * Handles {@link InvalidIdempotencyKeyException} thrown when a request is made with a
+	 * malformed idempotency key.
+	 * @param ex the exception to handle
+	 * @return Bad Request (status code 400)
+	 */
+	@ExceptionHandler(value = { InvalidIdempotencyKeyException.class })
+	protected ResponseEntity<Object> handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex) {
+
+		List<String> errors = Arrays.asList(ex.getMessage());
+		Map<String, List<String>> body = new HashMap<>();
+		body.put("errors", errors);
+
+		return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+	}
+
+	/**
+	 * Handles {@link RequestThrottledException} thrown when a request is rejected by
+	 * rate limiting or load shedding.
+	 * @param ex the exception to handle
+	 * @return Too Many Requests (status code 429) or Service Unavailable (status code 503)
+	 */
+	@ExceptionHandler(value = { RequestThrottledException.class })
+	protected ResponseEntity<Object> handleRequestThrottledException(RequestThrottledException ex) {
+
+		List<String> errors = Arrays.asList(ex.getMessage());
+		Map<String, List<String>> body = new HashMap<>();
+		body.put("errors", errors);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+
+		return new ResponseEntity<>(body, headers, ex.getStatus());
+	}
+
+	/**
+	 * Handles {@link InvalidTenantException} thrown when a request identifies a tenant
+	 * using an invalid id.
+	 * @param ex the exception to handle
+	 * @return Bad Request (status code 400)
+	 */
+	@ExceptionHandler(value = { InvalidTenantException.class })
+	protected ResponseEntity<Object> handleInvalidTenantException(InvalidTenantException ex) {
+
+		List<String> errors = Arrays.asList(ex.getMessage());
+		Map<String, List<String>> body = new HashMap<>();
+		body.put("errors", errors);
+
+		return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+	}
+
+	/**
+	 * Handles {@link TenantQuotaExceededException} thrown when a tenant attempts to hold
+	 * more tasks than it's quota allows.
+	 * @param ex the exception to handle
+	 * @return Forbidden (status code 403)
+	 */
+	@ExceptionHandler(value = { TenantQuotaExceededException.class })
+	protected ResponseEntity<Object> handleTenantQuotaExceededException(TenantQuotaExceededException ex) {
+
+		List<String> errors = Arrays.asList(ex.getMessage());
+		Map<String, List<String>> body = new HashMap<>();
+		body.put("errors", errors);
+
+		return new ResponseEntity<>(body, HttpStatus.FORBIDDEN);
+	}
 }
@@ -10,11 +10,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import nz.co.solnet.idempotency.IdempotencyStore;
+import nz.co.solnet.idempotency.InvalidIdempotencyKeyException;
 import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
+import nz.co.solnet.ratelimit.RateLimitTier;
+import nz.co.solnet.ratelimit.RateLimited;
 import nz.co.solnet.service.TaskService;
+import nz.co.solnet.tenant.TenantContext;
 
 /**
  * The Controller for maintaining {@link Task} instances.
@@ -25,10 +32,14 @@ public class TaskController {
 
 	/** The {@code TaskService} implementation injected by the Spring Framework. */
 	private final TaskService taskService;
+
+	/** The store used to answer repeated requests made with an {@code Idempotency-Key}. */
+	private final IdempotencyStore idempotencyStore;
 	
 	/** Constructor. */
-	public TaskController(TaskService taskService) {
+	public TaskController(TaskService taskService, IdempotencyStore idempotencyStore) {
 		this.taskService = taskService;
+		this.idempotencyStore = idempotencyStore;
 	}
 
 	/**
@@ -37,7 +48,7 @@ public class TaskController {
 	 * @return the task if one was found
 	 */
 	@GetMapping("{id}")
-	public Optional<Task> getTaskById(@PathVariable("id") int taskId) {
+	public Optional<TaskDetails> getTaskById(@PathVariable("id") int taskId) {
 		return taskService.getTaskById(taskId);
 	}
 	
@@ -46,7 +57,8 @@ public class TaskController {
 	 * @return a collection of all tasks retrieved from the repository
 	 */
 	@GetMapping
-	public Iterable<Task> getAllTasks() {
+	@RateLimited(RateLimitTier.EXPENSIVE)
+	public Iterable<TaskDetails> getAllTasks() {
 		return taskService.getTasks();
 	}
 	
@@ -55,18 +67,33 @@ public class TaskController {
 	 * @return a collection of all overdue tasks retrieved from the repository
 	 */
 	@GetMapping("overdue")
-	public Iterable<Task> getOverdueTasks() {
+	@RateLimited(RateLimitTier.EXPENSIVE)
+	public Iterable<TaskDetails> getOverdueTasks() {
 		return taskService.getOverdueTasks();
 	}
 
 	/**
 	 * Creates a new {@code Task} in the repository.
+	 * <p>
+	 * When an {@code Idempotency-Key} header is provided the task is only created once
+	 * for that key, and retries are answered with the originally created {@code Task}.
+	 * Keys are scoped to the tenant making the request.
 	 * @param task details of the {@code Task} to save
+	 * @param idempotencyKey the optional client supplied idempotency key
 	 * @return the created {@code Task} instance
 	 */
 	@PostMapping
-	public Task createTask(@Valid @RequestBody Task task) {
-		return taskService.createTask(task);
+	public Task createTask(@Valid @RequestBody Task task,
+			@RequestHeader(value = IdempotencyStore.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+		if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+			return taskService.createTask(task);
+		}
+		if (!IdempotencyStore.IDEMPOTENCY_KEY_PATTERN.matcher(idempotencyKey).matches()) {
+			throw new InvalidIdempotencyKeyException(
+					"Idempotency-Key must be at most 255 visible ASCII characters");
+		}
+		return idempotencyStore.execute(TenantContext.getTenantId() + ":" + idempotencyKey,
+				() -> taskService.createTask(task));
 	}
 	
 	/**
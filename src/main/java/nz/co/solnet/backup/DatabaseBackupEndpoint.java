@@ -0,0 +1,58 @@
+package nz.co.solnet.backup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * An actuator endpoint, available at {@code /actuator/backup}, streaming a zip
+ * file holding a consistent online backup of the file-backed H2 database.
+ * <p>
+ * The backup is taken with H2's {@code BACKUP TO} command, which copies a snapshot
+ * of the MVStore without locking the database, so task writes continue while the
+ * backup is taken. The copy is written to a temporary file that is deleted once it
+ * has been streamed.
+ * <p>
+ * The backup holds the tasks of every tenant, so the {@code durable} profile serves
+ * the actuator endpoints on a separate management port bound to the loopback address.
+ */
+@Component
+@Profile("durable")
+@Endpoint(id = "backup")
+public class DatabaseBackupEndpoint {
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param jdbcTemplate the template used to run the backup
+	 */
+	public DatabaseBackupEndpoint(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Takes a backup of the database.
+	 * @return the backup, as a zip file
+	 * @throws IOException if the backup could not be read
+	 */
+	@ReadOperation
+	public Resource backup() throws IOException {
+		Path file = Files.createTempFile("tasks-backup-", ".zip");
+		Files.delete(file);
+
+		jdbcTemplate.execute(String.format("BACKUP TO '%s'", file.toAbsolutePath().toString().replace("'", "''")));
+
+		return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+	}
+}
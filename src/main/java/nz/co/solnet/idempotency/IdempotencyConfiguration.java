@@ -0,0 +1,54 @@
+package nz.co.solnet.idempotency;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Configures the {@link IdempotencyStore} selected by the
+ * {@code tasks.idempotency.store} property, either {@code memory} (the default)
+ * or {@code jdbc}.
+ */
+@Configuration
+public class IdempotencyConfiguration {
+
+	@Value("${tasks.idempotency.ttl:24h}")
+	private Duration ttl;
+
+	@Value("${tasks.idempotency.max-entries:10000}")
+	private int maxEntries;
+
+	/**
+	 * An idempotency store holding responses in memory.
+	 * @return the in-memory store
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "tasks.idempotency.store", havingValue = "memory", matchIfMissing = true)
+	public IdempotencyStore inMemoryIdempotencyStore() {
+		return new InMemoryIdempotencyStore(ttl, maxEntries);
+	}
+
+	/**
+	 * An idempotency store persisting responses in the database.
+	 * @param jdbcTemplate the template used to access the database
+	 * @param transactionManager the transaction manager used when executing actions
+	 * @param objectMapper the mapper used to serialize stored responses
+	 * @param inFlightTimeout how long a claim is held for before another instance may take it over
+	 * @return the database backed store
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "tasks.idempotency.store", havingValue = "jdbc")
+	public IdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+			@Value("${tasks.idempotency.in-flight-timeout:10s}") Duration inFlightTimeout) {
+		return new JdbcIdempotencyStore(jdbcTemplate, transactionManager, objectMapper, ttl, maxEntries,
+				inFlightTimeout);
+	}
+}
@@ -0,0 +1,19 @@
+package nz.co.solnet.idempotency;
+
+/**
+ * Exception thrown when a request is made with an idempotency key that is still
+ * being processed elsewhere and no stored response became available in time.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+
+	private static final long serialVersionUID = 4529137795317472856L;
+
+	/**
+	 * Constructs a new exception with a detail message.
+	 * 
+	 * @param message the detail message
+	 */
+	public IdempotencyConflictException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,33 @@
+package nz.co.solnet.idempotency;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import nz.co.solnet.model.Task;
+
+/**
+ * A store of responses to requests made with an {@code Idempotency-Key}, used to
+ * answer client retries without creating duplicate {@link Task} instances.
+ */
+public interface IdempotencyStore {
+
+	/** The request header carrying the client supplied idempotency key. */
+	String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+	/** The format of valid idempotency keys, up to 255 visible ASCII characters. */
+	Pattern IDEMPOTENCY_KEY_PATTERN = Pattern.compile("[\\x21-\\x7E]{1,255}");
+
+	/**
+	 * Executes the given action at most once for the given key, returning the stored
+	 * response on any subsequent call made with the same key before it expires.
+	 * <p>
+	 * Concurrent calls with the same key wait for the single in-flight execution and
+	 * share it's result. If the action fails nothing is stored, so the request may be
+	 * retried with the same key.
+	 * 
+	 * @param key the client supplied idempotency key
+	 * @param action the action creating the {@code Task}
+	 * @return the created {@code Task}, or the stored response for a repeated key
+	 */
+	Task execute(String key, Supplier<Task> action);
+}
@@ -0,0 +1,136 @@
+package nz.co.solnet.idempotency;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import nz.co.solnet.model.Task;
+
+/**
+ * An {@link IdempotencyStore} holding responses in memory.
+ * <p>
+ * The store is bounded: entries expire once their time-to-live has passed and,
+ * when the maximum number of entries is reached, the oldest completed entries are
+ * evicted first. Entries that are still in flight are never evicted.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+	/** Stored entries in insertion order, which is also their order of expiry. */
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	/** How long a stored response is kept for. */
+	private final long ttlNanos;
+
+	/** The maximum number of entries to hold. */
+	private final int maxEntries;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param ttl how long a stored response is kept for
+	 * @param maxEntries the maximum number of entries to hold
+	 */
+	public InMemoryIdempotencyStore(Duration ttl, int maxEntries) {
+		this.ttlNanos = ttl.toNanos();
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Task execute(String key, Supplier<Task> action) {
+
+		Entry entry = new Entry(System.nanoTime() + ttlNanos);
+		Entry existing;
+
+		synchronized (entries) {
+			evict(System.nanoTime());
+			existing = entries.get(key);
+			if (existing == null) {
+				entries.put(key, entry);
+			}
+		}
+
+		if (existing != null) {
+			return await(existing);
+		}
+
+		try {
+			Task response = action.get();
+			entry.response.complete(response);
+			return response;
+		} catch (Throwable ex) {
+			synchronized (entries) {
+				entries.remove(key, entry);
+			}
+			entry.response.completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Returns the number of entries currently held.
+	 * @return the number of entries held
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Removes expired entries, then the oldest completed entries until there is room
+	 * for a new entry. Must be called while holding the lock on {@code entries}.
+	 */
+	private void evict(long now) {
+		Iterator<Entry> it = entries.values().iterator();
+		while (it.hasNext()) {
+			Entry entry = it.next();
+			if (entry.expires - now > 0) {
+				break;
+			}
+			if (entry.response.isDone()) {
+				it.remove();
+			}
+		}
+
+		it = entries.values().iterator();
+		while (entries.size() >= maxEntries && it.hasNext()) {
+			if (it.next().response.isDone()) {
+				it.remove();
+			}
+		}
+	}
+
+	/** Waits for the response of an in-flight or completed entry. */
+	private static Task await(Entry entry) {
+		try {
+			return entry.response.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			if (ex.getCause() instanceof Error) {
+				throw (Error) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	/** A stored response and the time at which it expires. */
+	private static final class Entry {
+
+		private final CompletableFuture<Task> response = new CompletableFuture<>();
+
+		private final long expires;
+
+		Entry(long expires) {
+			this.expires = expires;
+		}
+	}
+}
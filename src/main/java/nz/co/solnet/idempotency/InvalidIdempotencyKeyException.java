@@ -0,0 +1,18 @@
+package nz.co.solnet.idempotency;
+
+/**
+ * Exception thrown when a request is made with a malformed idempotency key.
+ */
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+	private static final long serialVersionUID = -5906127764388916214L;
+
+	/**
+	 * Constructs a new exception with a detail message.
+	 * 
+	 * @param message the detail message
+	 */
+	public InvalidIdempotencyKeyException(String message) {
+		super(message);
+	}
+}
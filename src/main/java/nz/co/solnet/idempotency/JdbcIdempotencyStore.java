@@ -0,0 +1,205 @@
+package nz.co.solnet.idempotency;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import nz.co.solnet.model.Task;
+
+/**
+ * An {@link IdempotencyStore} persisting responses in the {@code idempotency_keys}
+ * table so they survive restarts and are shared between application instances.
+ * <p>
+ * A key is claimed by inserting a row for it before the action is executed, so the
+ * primary key constraint guarantees a single execution even across instances. The
+ * claim is a lease held for the in-flight timeout: if the claiming instance dies
+ * before storing a response, another instance takes the claim over once the lease
+ * has expired. The action and the storing of it's response run in one transaction,
+ * which only commits if the claim is still held, so a task is never created without
+ * it's response being stored.
+ * <p>
+ * Responses are also held in a local {@link InMemoryIdempotencyStore}, which
+ * coalesces concurrent requests within this instance and answers most retries
+ * without a database round trip.
+ */
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+	/** How often to check for the response of a key claimed by another instance. */
+	private static final long POLL_INTERVAL_MILLIS = 50;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectMapper objectMapper;
+
+	private final InMemoryIdempotencyStore localStore;
+
+	private final Duration ttl;
+
+	private final Duration inFlightTimeout;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param jdbcTemplate the template used to access the {@code idempotency_keys} table
+	 * @param transactionManager the transaction manager used when executing actions
+	 * @param objectMapper the mapper used to serialize stored responses
+	 * @param ttl how long a stored response is kept for
+	 * @param maxEntries the maximum number of responses to also hold in memory
+	 * @param inFlightTimeout how long a claim is held for before another instance may take it over
+	 */
+	public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper, Duration ttl, int maxEntries, Duration inFlightTimeout) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.objectMapper = objectMapper;
+		this.localStore = new InMemoryIdempotencyStore(ttl, maxEntries);
+		this.ttl = ttl;
+		this.inFlightTimeout = inFlightTimeout;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Task execute(String key, Supplier<Task> action) {
+		return localStore.execute(key, () -> executeOnce(key, action));
+	}
+
+	/**
+	 * Executes the action if this instance is able to claim the key, otherwise waits
+	 * for the response stored by the instance holding the claim.
+	 */
+	private Task executeOnce(String key, Supplier<Task> action) {
+
+		jdbcTemplate.update("DELETE FROM idempotency_keys WHERE created < ?",
+				Timestamp.from(Instant.now().minus(ttl)));
+
+		String claimToken = UUID.randomUUID().toString();
+		if (claim(key, claimToken)) {
+			return executeClaimed(key, claimToken, action);
+		}
+
+		// wait for up to two leases, so a claim abandoned just before it expired can be taken over
+		long deadline = System.nanoTime() + inFlightTimeout.toNanos() * 2;
+
+		do {
+			List<Claim> claims = jdbcTemplate.query(
+					"SELECT response, claimed_until FROM idempotency_keys WHERE idempotency_key = ?",
+					(rs, rowNum) -> new Claim(rs.getString("response"), rs.getTimestamp("claimed_until")), key);
+
+			if (claims.isEmpty()) {
+				// the claim was released after a failure
+				if (claim(key, claimToken)) {
+					return executeClaimed(key, claimToken, action);
+				}
+			} else if (claims.get(0).response != null) {
+				return fromJson(claims.get(0).response);
+			} else if (claims.get(0).isExpired() && takeOver(key, claimToken)) {
+				return executeClaimed(key, claimToken, action);
+			}
+
+			try {
+				Thread.sleep(POLL_INTERVAL_MILLIS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		} while (System.nanoTime() - deadline < 0);
+
+		throw new IdempotencyConflictException(
+				String.format("A request with idempotency key %s is still being processed", key));
+	}
+
+	/**
+	 * Executes the action for a claimed key and stores it's response in the same
+	 * transaction, releasing the claim if either fails.
+	 */
+	private Task executeClaimed(String key, String claimToken, Supplier<Task> action) {
+		try {
+			return transactionTemplate.execute(status -> {
+				Task response = action.get();
+				int stored = jdbcTemplate.update(
+						"UPDATE idempotency_keys SET response = ? WHERE idempotency_key = ? AND claim_token = ?",
+						toJson(response), key, claimToken);
+				if (stored == 0) {
+					throw new IdempotencyConflictException(String
+							.format("The claim on idempotency key %s expired before the request completed", key));
+				}
+				return response;
+			});
+		} catch (Throwable ex) {
+			jdbcTemplate.update(
+					"DELETE FROM idempotency_keys WHERE idempotency_key = ? AND claim_token = ? AND response IS NULL",
+					key, claimToken);
+			throw ex;
+		}
+	}
+
+	/** Inserts a row claiming the key, returning {@code false} if one already exists. */
+	private boolean claim(String key, String claimToken) {
+		Instant now = Instant.now();
+		try {
+			jdbcTemplate.update(
+					"INSERT INTO idempotency_keys (idempotency_key, claim_token, claimed_until, created) VALUES (?, ?, ?, ?)",
+					key, claimToken, Timestamp.from(now.plus(inFlightTimeout)), Timestamp.from(now));
+			return true;
+		} catch (DuplicateKeyException ex) {
+			return false;
+		}
+	}
+
+	/** Takes over a claim whose lease has expired, returning {@code false} if another instance did so first. */
+	private boolean takeOver(String key, String claimToken) {
+		Instant now = Instant.now();
+		return jdbcTemplate.update(
+				"UPDATE idempotency_keys SET claim_token = ?, claimed_until = ? "
+						+ "WHERE idempotency_key = ? AND response IS NULL AND claimed_until < ?",
+				claimToken, Timestamp.from(now.plus(inFlightTimeout)), key, Timestamp.from(now)) == 1;
+	}
+
+	private String toJson(Task task) {
+		try {
+			return objectMapper.writeValueAsString(task);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Unable to store response for idempotency key", ex);
+		}
+	}
+
+	private Task fromJson(String json) {
+		try {
+			return objectMapper.readValue(json, Task.class);
+		} catch (JsonProcessingException ex) {
+			throw new IllegalStateException("Unable to read stored response for idempotency key", ex);
+		}
+	}
+
+	/** The state of a claimed key. */
+	private static final class Claim {
+
+		private final String response;
+
+		private final Timestamp claimedUntil;
+
+		Claim(String response, Timestamp claimedUntil) {
+			this.response = response;
+			this.claimedUntil = claimedUntil;
+		}
+
+		boolean isExpired() {
+			return claimedUntil == null || claimedUntil.toInstant().isBefore(Instant.now());
+		}
+	}
+}
@@ -12,6 +12,8 @@ import javax.validation.constraints.NotNull;
 
 import org.springframework.format.annotation.DateTimeFormat;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * A {@code Task} domain object.
  */
@@ -39,6 +41,10 @@ public class Task extends BaseEntity {
 	@NotNull(message = "creation date required")
 	private LocalDate creationDate;
 
+	@Column(name = "tenant_id")
+	@JsonIgnore
+	private String tenantId;
+
 	public LocalDate getCreationDate() {
 		return creationDate;
 	}
@@ -78,4 +84,12 @@ public class Task extends BaseEntity {
 	public void setTitle(String title) {
 		this.title = title;
 	}
+
+	public String getTenantId() {
+		return tenantId;
+	}
+
+	public void setTenantId(String tenantId) {
+		this.tenantId = tenantId;
+	}
 }
\ No newline at end of file
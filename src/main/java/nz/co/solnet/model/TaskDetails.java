@@ -0,0 +1,63 @@
+package nz.co.solnet.model;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * An immutable, read-only view of a {@link Task} returned by the query endpoints.
+ * <p>
+ * Instances are built directly from query results using a JPQL constructor
+ * expression, so no managed entity (or dirty-checking snapshot) is created
+ * when tasks are read.
+ */
+@JsonPropertyOrder({ "id", "title", "description", "status", "dueDate", "creationDate" })
+public final class TaskDetails {
+
+	private final Integer id;
+
+	private final String title;
+
+	private final String description;
+
+	private final TaskStatus status;
+
+	private final LocalDate dueDate;
+
+	private final LocalDate creationDate;
+
+	/** Constructor. */
+	public TaskDetails(Integer id, String title, String description, TaskStatus status, LocalDate dueDate,
+			LocalDate creationDate) {
+		this.id = id;
+		this.title = title;
+		this.description = description;
+		this.status = status;
+		this.dueDate = dueDate;
+		this.creationDate = creationDate;
+	}
+
+	public Integer getId() {
+		return id;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public TaskStatus getStatus() {
+		return status;
+	}
+
+	public LocalDate getDueDate() {
+		return dueDate;
+	}
+
+	public LocalDate getCreationDate() {
+		return creationDate;
+	}
+}
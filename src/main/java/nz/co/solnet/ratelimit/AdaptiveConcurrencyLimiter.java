@@ -0,0 +1,101 @@
+package nz.co.solnet.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of requests processed concurrently, adapting the limit to the
+ * observed latency.
+ * <p>
+ * The limit follows an additive-increase/multiplicative-decrease scheme: it grows by
+ * one while requests complete within the target latency and the limit is being used,
+ * and shrinks by the backoff ratio when a request exceeds the target latency. The
+ * limit is only reduced by requests admitted after the previous reduction, so a
+ * single stall affecting many in-flight requests reduces it once rather than once
+ * per request. All state is held in atomics, so no lock is taken on the request path.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final long targetLatencyNanos;
+
+	private final double backoffRatio;
+
+	private final AtomicInteger limit;
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	/** The time of the last reduction of the limit. */
+	private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param initialLimit the starting concurrency limit
+	 * @param minLimit the lowest the limit may shrink to
+	 * @param maxLimit the highest the limit may grow to
+	 * @param targetLatencyNanos the latency above which the limit is reduced
+	 * @param backoffRatio the factor the limit is multiplied by when reduced
+	 */
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos,
+			double backoffRatio) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.targetLatencyNanos = targetLatencyNanos;
+		this.backoffRatio = backoffRatio;
+		this.limit = new AtomicInteger(initialLimit);
+	}
+
+	/**
+	 * Attempts to start processing a request.
+	 * @return {@code true} if the request may proceed, in which case
+	 *         {@link #release(long, long)} must be called once it completes
+	 */
+	public boolean tryAcquire() {
+		for (;;) {
+			int current = inFlight.get();
+			if (current >= limit.get()) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Records the completion of a request and adjusts the limit.
+	 * @param admittedNanos the {@link System#nanoTime()} at which the request was admitted
+	 * @param completedNanos the {@link System#nanoTime()} at which the request completed
+	 */
+	public void release(long admittedNanos, long completedNanos) {
+		int current = inFlight.getAndDecrement();
+		if (completedNanos - admittedNanos > targetLatencyNanos) {
+			long last = lastDecrease.get();
+			if (admittedNanos - last > 0 && lastDecrease.compareAndSet(last, completedNanos)) {
+				limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+			}
+		} else if (current * 2 >= limit.get()) {
+			limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+		}
+	}
+
+	/**
+	 * Returns the current concurrency limit.
+	 * @return the current limit
+	 */
+	public int getLimit() {
+		return limit.get();
+	}
+
+	/**
+	 * Returns the number of requests currently being processed.
+	 * @return the number of requests in flight
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+}
@@ -0,0 +1,97 @@
+package nz.co.solnet.ratelimit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate limits each client with a separate {@link TokenBucket} per
+ * {@link RateLimitTier}.
+ * <p>
+ * Buckets are held in a {@link ConcurrentHashMap}, so clients only contend with
+ * each other when they hash to the same bin. Once more than the maximum number of
+ * clients are tracked, full buckets are discarded since they carry no state.
+ */
+public class ClientRateLimiter {
+
+	/** The minimum time between sweeps for discarding full buckets. */
+	private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private final Map<RateLimitTier, Budget> budgets = new EnumMap<>(RateLimitTier.class);
+
+	private final int maxClients;
+
+	private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param maxClients the number of tracked clients above which full buckets are discarded
+	 */
+	public ClientRateLimiter(int maxClients) {
+		this.maxClients = maxClients;
+	}
+
+	/**
+	 * Sets the budget for a tier.
+	 * 
+	 * @param tier the tier to set the budget for
+	 * @param requestsPerSecond the sustained request rate allowed for each client
+	 * @param burst the number of requests each client may make in a burst
+	 * @return this rate limiter
+	 */
+	public ClientRateLimiter withBudget(RateLimitTier tier, double requestsPerSecond, int burst) {
+		budgets.put(tier, new Budget(requestsPerSecond, burst));
+		return this;
+	}
+
+	/**
+	 * Attempts to charge a request from a client against a tier.
+	 * 
+	 * @param tier the tier to charge
+	 * @param client the key identifying the client
+	 * @return zero if the request is permitted, otherwise how long to wait in
+	 *         nanoseconds before retrying
+	 */
+	public long tryAcquire(RateLimitTier tier, String client) {
+		Budget budget = budgets.get(tier);
+		if (budget == null) {
+			return 0;
+		}
+
+		long now = System.nanoTime();
+		TokenBucket bucket = budget.buckets.get(client);
+		if (bucket == null) {
+			bucket = budget.buckets.computeIfAbsent(client,
+					key -> new TokenBucket(budget.requestsPerSecond, budget.burst, now));
+			sweep(budget, now);
+		}
+		return bucket.tryAcquire(now);
+	}
+
+	/** Discards full buckets if too many clients are tracked, at most once per interval. */
+	private void sweep(Budget budget, long now) {
+		long next = nextSweep.get();
+		if (budget.buckets.size() > maxClients && now - next >= 0
+				&& nextSweep.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+			budget.buckets.values().removeIf(bucket -> bucket.isFull(now));
+		}
+	}
+
+	/** The budget and client buckets for a single tier. */
+	private static final class Budget {
+
+		private final double requestsPerSecond;
+
+		private final int burst;
+
+		private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+		Budget(double requestsPerSecond, int burst) {
+			this.requestsPerSecond = requestsPerSecond;
+			this.burst = burst;
+		}
+	}
+}
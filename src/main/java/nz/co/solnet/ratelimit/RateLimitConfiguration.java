@@ -0,0 +1,75 @@
+package nz.co.solnet.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link RateLimitInterceptor} for the task API, configured by the
+ * {@code tasks.rate-limit} properties.
+ */
+@Configuration
+@ConditionalOnProperty(name = "tasks.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration implements WebMvcConfigurer {
+
+	@Value("${tasks.rate-limit.max-clients:10000}")
+	private int maxClients;
+
+	@Value("${tasks.rate-limit.cheap.requests-per-second:50}")
+	private double cheapRequestsPerSecond;
+
+	@Value("${tasks.rate-limit.cheap.burst:100}")
+	private int cheapBurst;
+
+	@Value("${tasks.rate-limit.expensive.requests-per-second:5}")
+	private double expensiveRequestsPerSecond;
+
+	@Value("${tasks.rate-limit.expensive.burst:10}")
+	private int expensiveBurst;
+
+	@Value("${tasks.rate-limit.tenant.cheap.requests-per-second:500}")
+	private double tenantCheapRequestsPerSecond;
+
+	@Value("${tasks.rate-limit.tenant.cheap.burst:1000}")
+	private int tenantCheapBurst;
+
+	@Value("${tasks.rate-limit.tenant.expensive.requests-per-second:50}")
+	private double tenantExpensiveRequestsPerSecond;
+
+	@Value("${tasks.rate-limit.tenant.expensive.burst:100}")
+	private int tenantExpensiveBurst;
+
+	@Value("${tasks.rate-limit.concurrency.initial-limit:20}")
+	private int initialLimit;
+
+	@Value("${tasks.rate-limit.concurrency.min-limit:4}")
+	private int minLimit;
+
+	@Value("${tasks.rate-limit.concurrency.max-limit:200}")
+	private int maxLimit;
+
+	@Value("${tasks.rate-limit.concurrency.target-latency:250ms}")
+	private Duration targetLatency;
+
+	@Value("${tasks.rate-limit.concurrency.backoff-ratio:0.9}")
+	private double backoffRatio;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		ClientRateLimiter rateLimiter = new ClientRateLimiter(maxClients)
+				.withBudget(RateLimitTier.CHEAP, cheapRequestsPerSecond, cheapBurst)
+				.withBudget(RateLimitTier.EXPENSIVE, expensiveRequestsPerSecond, expensiveBurst);
+		ClientRateLimiter tenantRateLimiter = new ClientRateLimiter(maxClients)
+				.withBudget(RateLimitTier.CHEAP, tenantCheapRequestsPerSecond, tenantCheapBurst)
+				.withBudget(RateLimitTier.EXPENSIVE, tenantExpensiveRequestsPerSecond, tenantExpensiveBurst);
+		AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit,
+				maxLimit, targetLatency.toNanos(), backoffRatio);
+
+		registry.addInterceptor(new RateLimitInterceptor(rateLimiter, tenantRateLimiter, concurrencyLimiter))
+				.addPathPatterns("/v1/tasks/**");
+	}
+}
@@ -0,0 +1,103 @@
+package nz.co.solnet.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import nz.co.solnet.tenant.TenantContext;
+
+/**
+ * Applies per-client rate limits and adaptive concurrency limiting to API requests.
+ * <p>
+ * Each request is charged against the budget of it's remote address and, when an
+ * {@code X-API-Key} header is present, also against the budget of that key. The key
+ * is not authenticated, so charging the address as well stops a client from
+ * bypassing it's limit by sending a new key with each request. Each tenant also has a budget shared by all of it's clients, so
+ * that a single large tenant cannot starve the others. Requests over either budget
+ * are rejected with Too Many Requests (status code 429), and requests arriving
+ * while the concurrency limit is reached are shed with Service Unavailable (status
+ * code 503).
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+	/** The request header identifying the client. */
+	public static final String API_KEY_HEADER = "X-API-Key";
+
+	/** The request attribute holding the time the request was admitted. */
+	private static final String START_TIME_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".startTime";
+
+	private final ClientRateLimiter rateLimiter;
+
+	private final ClientRateLimiter tenantRateLimiter;
+
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param rateLimiter the per-client rate limiter
+	 * @param tenantRateLimiter the per-tenant rate limiter
+	 * @param concurrencyLimiter the concurrency limiter shared by all clients
+	 */
+	public RateLimitInterceptor(ClientRateLimiter rateLimiter, ClientRateLimiter tenantRateLimiter,
+			AdaptiveConcurrencyLimiter concurrencyLimiter) {
+		this.rateLimiter = rateLimiter;
+		this.tenantRateLimiter = tenantRateLimiter;
+		this.concurrencyLimiter = concurrencyLimiter;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+		if (!(handler instanceof HandlerMethod)) {
+			return true;
+		}
+
+		RateLimited rateLimited = ((HandlerMethod) handler).getMethodAnnotation(RateLimited.class);
+		RateLimitTier tier = rateLimited == null ? RateLimitTier.CHEAP : rateLimited.value();
+
+		long waitNanos = rateLimiter.tryAcquire(tier, "ip:" + request.getRemoteAddr());
+		String apiKey = request.getHeader(API_KEY_HEADER);
+		if (waitNanos == 0 && apiKey != null && !apiKey.isEmpty()) {
+			waitNanos = rateLimiter.tryAcquire(tier, "key:" + apiKey);
+		}
+		if (waitNanos > 0) {
+			throw new RequestThrottledException("Rate limit exceeded, please retry later", HttpStatus.TOO_MANY_REQUESTS,
+					toRetryAfterSeconds(waitNanos));
+		}
+
+		waitNanos = tenantRateLimiter.tryAcquire(tier, TenantContext.getTenantId());
+		if (waitNanos > 0) {
+			throw new RequestThrottledException("Tenant rate limit exceeded, please retry later",
+					HttpStatus.TOO_MANY_REQUESTS, toRetryAfterSeconds(waitNanos));
+		}
+
+		if (!concurrencyLimiter.tryAcquire()) {
+			throw new RequestThrottledException("Service is overloaded, please retry later",
+					HttpStatus.SERVICE_UNAVAILABLE, 1);
+		}
+
+		request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+		if (startTime != null) {
+			request.removeAttribute(START_TIME_ATTRIBUTE);
+			concurrencyLimiter.release((Long) startTime, System.nanoTime());
+		}
+	}
+
+	/** Converts a wait time to whole seconds for the {@code Retry-After} header. */
+	private static long toRetryAfterSeconds(long waitNanos) {
+		return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+	}
+}
@@ -0,0 +1,14 @@
+package nz.co.solnet.ratelimit;
+
+/**
+ * The rate limiting budgets that API operations are charged against.
+ */
+public enum RateLimitTier {
+
+	/** Cheap operations that touch a single row, such as fetching a task by id. */
+	CHEAP,
+
+	/** Expensive operations that scan many rows, such as listing all tasks. */
+	EXPENSIVE;
+
+}
@@ -0,0 +1,23 @@
+package nz.co.solnet.ratelimit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the {@link RateLimitTier} a controller method is charged against.
+ * Methods without this annotation are charged against {@link RateLimitTier#CHEAP}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+	/**
+	 * The tier the annotated method is charged against.
+	 * @return the rate limit tier
+	 */
+	RateLimitTier value();
+}
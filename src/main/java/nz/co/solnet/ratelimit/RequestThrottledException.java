@@ -0,0 +1,38 @@
+package nz.co.solnet.ratelimit;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a request is rejected by rate limiting or load shedding.
+ */
+public class RequestThrottledException extends RuntimeException {
+
+	private static final long serialVersionUID = -2398465012387781653L;
+
+	/** The status to respond with. */
+	private final HttpStatus status;
+
+	/** The number of seconds the client should wait before retrying. */
+	private final long retryAfterSeconds;
+
+	/**
+	 * Constructs a new exception with a detail message.
+	 * 
+	 * @param message the detail message
+	 * @param status the status to respond with
+	 * @param retryAfterSeconds the number of seconds the client should wait before retrying
+	 */
+	public RequestThrottledException(String message, HttpStatus status, long retryAfterSeconds) {
+		super(message);
+		this.status = status;
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	public HttpStatus getStatus() {
+		return status;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -0,0 +1,69 @@
+package nz.co.solnet.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free token bucket.
+ * <p>
+ * The bucket is implemented using the generic cell rate algorithm, so it's entire
+ * state is a single "theoretical arrival time" that is advanced by one emission
+ * interval for each permitted request. This allows the state to be updated with a
+ * single compare-and-set rather than a lock. All times are {@link System#nanoTime()}
+ * values.
+ */
+public class TokenBucket {
+
+	/** The time between tokens being added to the bucket. */
+	private final long emissionIntervalNanos;
+
+	/** How far the arrival time may run ahead of the current time, giving the burst size. */
+	private final long toleranceNanos;
+
+	/** The theoretical arrival time of the next request. */
+	private final AtomicLong arrivalTime;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param tokensPerSecond the rate at which tokens are added to the bucket
+	 * @param capacity the maximum number of tokens the bucket holds
+	 * @param now the current time
+	 */
+	public TokenBucket(double tokensPerSecond, int capacity, long now) {
+		this.emissionIntervalNanos = (long) (1_000_000_000L / tokensPerSecond);
+		this.toleranceNanos = emissionIntervalNanos * (capacity - 1);
+		this.arrivalTime = new AtomicLong(now);
+	}
+
+	/**
+	 * Attempts to take a single token from the bucket.
+	 * 
+	 * @param now the current time
+	 * @return zero if a token was taken, otherwise how long to wait in nanoseconds
+	 *         before a token will be available
+	 */
+	public long tryAcquire(long now) {
+		for (;;) {
+			long current = arrivalTime.get();
+			long start = current - now > 0 ? current : now;
+			long wait = start - now - toleranceNanos;
+			if (wait > 0) {
+				return wait;
+			}
+			if (arrivalTime.compareAndSet(current, start + emissionIntervalNanos)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Checks if the bucket is full, in which case it is indistinguishable from a new
+	 * bucket and may be discarded.
+	 * 
+	 * @param now the current time
+	 * @return {@code true} if the bucket is full
+	 */
+	public boolean isFull(long now) {
+		return arrivalTime.get() - now <= 0;
+	}
+}
@@ -1,52 +1,98 @@
 package nz.co.solnet.repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
 import nz.co.solnet.model.TaskStatus;
 
 /**
  * A repository for performing actions on persisted {@link Task} entities.
+ * <p>
+ * Every query is scoped to a single tenant, and is led by the tenant id so that it
+ * is served by one of the tenant-led indexes on the {@code tasks} table. Only the
+ * tenant-scoped operations are declared, so tasks cannot be read or removed without
+ * naming their tenant.
  */
-public interface TaskRepository extends CrudRepository<Task, Integer> {
+public interface TaskRepository extends Repository<Task, Integer> {
 
 	/**
-	 * Retrieve a {@code Task} from the data store using it's unique id.
+	 * Save a {@link Task} to the repository, inserting it if it has no id.
+	 * @param task the task to save
+	 * @return the saved task
+	 */
+	Task save(Task task);
+
+	/**
+	 * Retrieve a {@code Task} belonging to a tenant from the data store using it's unique id.
 	 * @param id the id of the {@code Task} to search for
+	 * @param tenantId the id of the tenant the {@code Task} belongs to
 	 * @return the {@code Task} if found
 	 */
-	@Query("SELECT task FROM Task task WHERE task.id =:id")
+	@Query("SELECT task FROM Task task WHERE task.tenantId = :tenantId AND task.id = :id")
 	@Transactional(readOnly = true)
-	Optional<Task> findById(@Param("id") Integer id);
+	Optional<Task> findByIdAndTenantId(@Param("id") Integer id, @Param("tenantId") String tenantId);
 
+	/**
+	 * Retrieve a read-only view of a {@code Task} belonging to a tenant using it's unique id.
+	 * @param id the id of the {@code Task} to search for
+	 * @param tenantId the id of the tenant the {@code Task} belongs to
+	 * @return the {@code Task} details if found
+	 */
+	@Query("SELECT new nz.co.solnet.model.TaskDetails(task.id, task.title, task.description, task.status, task.dueDate, task.creationDate) "
+			+ "FROM Task task WHERE task.tenantId = :tenantId AND task.id = :id")
+	@Transactional(readOnly = true)
+	Optional<TaskDetails> findDetailsById(@Param("id") Integer id, @Param("tenantId") String tenantId);
 
 	/**
-	 * Retrieves all {@code Tasks} from the repository.
-	 * @return a collection of {@code Task} instances retrieved from the repository
+	 * Retrieves read-only views of all {@code Tasks} belonging to a tenant from the repository.
+	 * @param tenantId the id of the tenant the {@code Tasks} belong to
+	 * @return a collection of {@code TaskDetails} instances retrieved from the repository
 	 */
+	@Query("SELECT new nz.co.solnet.model.TaskDetails(task.id, task.title, task.description, task.status, task.dueDate, task.creationDate) "
+			+ "FROM Task task WHERE task.tenantId = :tenantId ORDER BY task.id")
 	@Transactional(readOnly = true)
-	Iterable<Task> findAll();
-	
+	List<TaskDetails> findAllDetails(@Param("tenantId") String tenantId);
+
 	/**
-	 * Retrieve {@link Tasks}s from the repository by date and status, returning all tasks
-	 * before the given due-date with the given status.
+	 * Retrieve {@link Tasks}s belonging to a tenant from the repository by date and status,
+	 * returning all tasks before the given due-date with the given status.
+	 * @param tenantId the id of the tenant the {@code Tasks} belong to
 	 * @param date the upper date bound for due tasks
 	 * @param status the task status to find
-	 * @return a collection of {@code Task} instances retrieved from the repository
+	 * @return a collection of {@code TaskDetails} instances retrieved from the repository
+	 */
+	@Query("SELECT new nz.co.solnet.model.TaskDetails(task.id, task.title, task.description, task.status, task.dueDate, task.creationDate) "
+			+ "FROM Task task WHERE task.tenantId = :tenantId AND task.status = :status AND task.dueDate <= :date ORDER BY task.dueDate DESC")
+	@Transactional(readOnly = true)
+	List<TaskDetails> findBeforeDueDateWithStatus(@Param("tenantId") String tenantId, @Param("date") LocalDate date,
+			@Param("status") TaskStatus status);
+
+	/**
+	 * Counts the {@code Tasks} belonging to a tenant.
+	 * @param tenantId the id of the tenant the {@code Tasks} belong to
+	 * @return the number of {@code Tasks} held for the tenant
 	 */
-	@Query("SELECT task FROM Task task WHERE task.dueDate <= :date AND task.status = :status ORDER BY task.dueDate DESC")
+	@Query("SELECT COUNT(task) FROM Task task WHERE task.tenantId = :tenantId")
 	@Transactional(readOnly = true)
-	Iterable<Task> findBeforeDueDateWithStatus(@Param("date") LocalDate date, @Param("status") TaskStatus status);
+	long countByTenantId(@Param("tenantId") String tenantId);
 
 	/**
-	 * Delete a {@link Task} from the repository.
+	 * Delete a {@link Task} belonging to a tenant from the repository.
 	 * @param id the id of the task to delete
+	 * @param tenantId the id of the tenant the {@code Task} belongs to
+	 * @return the number of tasks deleted
 	 */
-	void deleteById(@Param("id") Integer id);
+	@Modifying
+	@Query("DELETE FROM Task task WHERE task.tenantId = :tenantId AND task.id = :id")
+	@Transactional
+	int deleteByIdAndTenantId(@Param("id") Integer id, @Param("tenantId") String tenantId);
 }
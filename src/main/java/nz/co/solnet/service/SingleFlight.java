@@ -0,0 +1,145 @@
+package nz.co.solnet.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical reads so that only one call to the underlying
+ * loader is in flight for a key at any time, with every caller sharing it's result.
+ * <p>
+ * A completed result may optionally be kept for a short cache window, during which
+ * further calls for the same key are answered without calling the loader. Results
+ * are shared between threads, so they must not be modified by callers.
+ * <p>
+ * The number of loader calls and of calls answered by a shared result are recorded
+ * in the {@code tasks.reads} counter, tagged with an {@code outcome} of
+ * {@code executed} or {@code coalesced}.
+ *
+ * @param <K> the type of key identifying identical reads
+ * @param <V> the type of result
+ */
+public class SingleFlight<K, V> {
+
+	/** The number of entries above which expired results are swept from the map. */
+	private static final int SWEEP_THRESHOLD = 1024;
+
+	private final ConcurrentHashMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+
+	private final long cacheWindowNanos;
+
+	private final Counter executed;
+
+	private final Counter coalesced;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param name the name of the read, used to tag the recorded metrics
+	 * @param cacheWindow how long a completed result is kept for, zero to disable
+	 * @param meterRegistry the registry to record metrics in
+	 */
+	public SingleFlight(String name, Duration cacheWindow, MeterRegistry meterRegistry) {
+		this.cacheWindowNanos = cacheWindow.toNanos();
+		this.executed = meterRegistry.counter("tasks.reads", "query", name, "outcome", "executed");
+		this.coalesced = meterRegistry.counter("tasks.reads", "query", name, "outcome", "coalesced");
+	}
+
+	/**
+	 * Returns the result for a key, calling the loader only if no call for the key is
+	 * in flight and no result is held within the cache window.
+	 * 
+	 * @param key the key identifying the read
+	 * @param loader the loader performing the read
+	 * @return the result of the read
+	 */
+	public V execute(K key, Supplier<V> loader) {
+		for (;;) {
+			Call<V> call = calls.get(key);
+			if (call != null && !call.isExpired(System.nanoTime())) {
+				coalesced.increment();
+				return call.await();
+			}
+
+			Call<V> created = new Call<>();
+			boolean leader = call == null ? calls.putIfAbsent(key, created) == null
+					: calls.replace(key, call, created);
+			if (leader) {
+				return load(key, created, loader);
+			}
+		}
+	}
+
+	/**
+	 * Discards all in-flight and cached results, so that subsequent calls read the
+	 * latest data. Callers already waiting on an in-flight call still receive it's result.
+	 */
+	public void invalidate() {
+		calls.clear();
+	}
+
+	/**
+	 * Discards in-flight and cached results for the keys matching a predicate.
+	 * @param keys the predicate selecting the keys to discard
+	 */
+	public void invalidate(Predicate<? super K> keys) {
+		calls.keySet().removeIf(keys);
+	}
+
+	/** Calls the loader on behalf of all callers sharing the call. */
+	private V load(K key, Call<V> call, Supplier<V> loader) {
+		executed.increment();
+		try {
+			V result = loader.get();
+			call.complete(result, System.nanoTime() + cacheWindowNanos);
+			if (cacheWindowNanos == 0) {
+				calls.remove(key, call);
+			} else if (calls.size() > SWEEP_THRESHOLD) {
+				long now = System.nanoTime();
+				calls.values().removeIf(existing -> existing.isExpired(now));
+			}
+			return result;
+		} catch (Throwable ex) {
+			calls.remove(key, call);
+			call.result.completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	/** A single call to the loader and the time at which it's result expires. */
+	private static final class Call<V> {
+
+		private final CompletableFuture<V> result = new CompletableFuture<>();
+
+		private volatile long expires;
+
+		void complete(V value, long expires) {
+			this.expires = expires;
+			result.complete(value);
+		}
+
+		boolean isExpired(long now) {
+			return result.isCompletedExceptionally() || (result.isDone() && now - expires >= 0);
+		}
+
+		V await() {
+			try {
+				return result.join();
+			} catch (CompletionException ex) {
+				if (ex.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) ex.getCause();
+				}
+				if (ex.getCause() instanceof Error) {
+					throw (Error) ex.getCause();
+				}
+				throw ex;
+			}
+		}
+	}
+}
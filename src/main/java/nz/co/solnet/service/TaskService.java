@@ -3,6 +3,7 @@ package nz.co.solnet.service;
 import java.util.Optional;
 
 import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
 
 /**
  * A Service for maintaining {@code Task} instances.
@@ -19,21 +20,21 @@ public interface TaskService {
 	/**
 	 * Retrieves a {@code Task} by id.
 	 * @param id the id of the {@code Task} to retrieve
-	 * @return the found {@code Task} if any
+	 * @return details of the found {@code Task} if any
 	 */
-	public Optional<Task> getTaskById(int id);
+	public Optional<TaskDetails> getTaskById(int id);
 
 	/**
 	 * Gets all {@code Tasks} from the repository.
-	 * @return a collection of all {@code Tasks}
+	 * @return details of all {@code Tasks}
 	 */
-	public Iterable<Task> getTasks();
+	public Iterable<TaskDetails> getTasks();
 
 	/**
 	 * Gets all overdue {@code Tasks} from the repository.
-	 * @return a collection of all overdue {@code Tasks}
+	 * @return details of all overdue {@code Tasks}
 	 */
-	public Iterable<Task> getOverdueTasks();
+	public Iterable<TaskDetails> getOverdueTasks();
 	
 	/**
 	 * Updates a {@code Task} instance.
@@ -1,19 +1,34 @@
 package nz.co.solnet.service;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import nz.co.solnet.api.TaskNotFoundException;
 import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
 import nz.co.solnet.model.TaskStatus;
 import nz.co.solnet.repository.TaskRepository;
+import nz.co.solnet.tenant.TenantContext;
+import nz.co.solnet.tenant.TenantQuotaExceededException;
 
 /**
  * A service implementation for managing {@code Task} instances held in a
  * repository.
+ * <p>
+ * All operations act on the tasks of the tenant held in the {@link TenantContext}.
+ * Concurrent identical reads are coalesced using {@link SingleFlight}, so they
+ * share a single repository call. Any write discards the tenant's in-flight and
+ * cached reads, once the transaction the write took part in has completed.
  */
 @Service
 public class TaskServiceImpl implements TaskService {
@@ -23,46 +38,90 @@ public class TaskServiceImpl implements TaskService {
 	 */
 	private TaskRepository taskRepository;
 
+	/** The maximum number of tasks each tenant may hold. */
+	private final long maxTasksPerTenant;
+
+	/** Coalesces reads of a single task, keyed by tenant and id. */
+	private final SingleFlight<String, Optional<TaskDetails>> taskReads;
+
+	/** Coalesces reads of all tasks, keyed by tenant. */
+	private final SingleFlight<String, List<TaskDetails>> allTaskReads;
+
+	/** Coalesces reads of overdue tasks, keyed by tenant and date. */
+	private final SingleFlight<String, List<TaskDetails>> overdueTaskReads;
+
 	/**
 	 * Constructor.
 	 * 
 	 * @param taskRepository the repository injected by the Spring Framework.
+	 * @param meterRegistry the registry used to record read coalescing metrics
+	 * @param cacheWindow how long completed reads are shared for, zero to only share in-flight reads
+	 * @param maxTasksPerTenant the maximum number of tasks each tenant may hold
 	 */
 	@Autowired
-	public TaskServiceImpl(TaskRepository taskRepository) {
+	public TaskServiceImpl(TaskRepository taskRepository, MeterRegistry meterRegistry,
+			@Value("${tasks.reads.cache-window:0ms}") Duration cacheWindow,
+			@Value("${tasks.tenant.max-tasks:100000}") long maxTasksPerTenant) {
 		this.taskRepository = taskRepository;
+		this.maxTasksPerTenant = maxTasksPerTenant;
+		this.taskReads = new SingleFlight<>("byId", cacheWindow, meterRegistry);
+		this.allTaskReads = new SingleFlight<>("all", cacheWindow, meterRegistry);
+		this.overdueTaskReads = new SingleFlight<>("overdue", cacheWindow, meterRegistry);
 	}
 
 	/**
 	 * {@inheritDoc}
+	 * <p>
+	 * The tenant's task quota is checked before the task is saved, so concurrent
+	 * requests may exceed the quota by a small margin.
 	 */
 	@Override
 	public Task createTask(Task task) {
-		return taskRepository.save(task);
+		String tenantId = TenantContext.getTenantId();
+		if (taskRepository.countByTenantId(tenantId) >= maxTasksPerTenant) {
+			throw new TenantQuotaExceededException(
+					String.format("The quota of %s tasks has been reached for tenant %s", maxTasksPerTenant, tenantId));
+		}
+
+		// always insert a new task, an id in the request must not merge into an existing task
+		task.setId(null);
+		task.setTenantId(tenantId);
+		try {
+			return taskRepository.save(task);
+		} finally {
+			invalidateReads(tenantId);
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Optional<Task> getTaskById(int taskId) {
-		return taskRepository.findById(taskId);
+	public Optional<TaskDetails> getTaskById(int taskId) {
+		String tenantId = TenantContext.getTenantId();
+		return taskReads.execute(readKey(tenantId, taskId),
+				() -> taskRepository.findDetailsById(taskId, tenantId));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Iterable<Task> getTasks() {
-		return taskRepository.findAll();
+	public Iterable<TaskDetails> getTasks() {
+		String tenantId = TenantContext.getTenantId();
+		return allTaskReads.execute(readKey(tenantId, ""),
+				() -> Collections.unmodifiableList(taskRepository.findAllDetails(tenantId)));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	public Iterable<Task> getOverdueTasks() {
-		return taskRepository.findBeforeDueDateWithStatus(LocalDate.now(), TaskStatus.PENDING);
+	public Iterable<TaskDetails> getOverdueTasks() {
+		String tenantId = TenantContext.getTenantId();
+		LocalDate today = LocalDate.now();
+		return overdueTaskReads.execute(readKey(tenantId, today), () -> Collections
+				.unmodifiableList(taskRepository.findBeforeDueDateWithStatus(tenantId, today, TaskStatus.PENDING)));
 	}
 
 	/**
@@ -71,7 +130,8 @@ public class TaskServiceImpl implements TaskService {
 	@Override
 	public Task updateTask(int taskId, Task task) {
 
-		Task existingTask = taskRepository.findById(taskId)
+		String tenantId = TenantContext.getTenantId();
+		Task existingTask = taskRepository.findByIdAndTenantId(taskId, tenantId)
 				.orElseThrow(() -> new TaskNotFoundException(String.format("No task with id %s is available", taskId)));
 
 		existingTask.setTitle(task.getTitle());
@@ -79,7 +139,11 @@ public class TaskServiceImpl implements TaskService {
 		existingTask.setStatus(task.getStatus());
 		existingTask.setDueDate(task.getDueDate());
 		existingTask.setCreationDate(task.getCreationDate());
-		return this.taskRepository.save(existingTask);
+		try {
+			return this.taskRepository.save(existingTask);
+		} finally {
+			invalidateReads(tenantId);
+		}
 	}
 
 	/**
@@ -87,8 +151,47 @@ public class TaskServiceImpl implements TaskService {
 	 */
 	@Override
 	public void deleteTaskById(int taskId) {
-		taskRepository.findById(taskId)
-				.orElseThrow(() -> new TaskNotFoundException(String.format("No task with id %s is available", taskId)));
-		taskRepository.deleteById(taskId);
+		String tenantId = TenantContext.getTenantId();
+		int deleted;
+		try {
+			deleted = taskRepository.deleteByIdAndTenantId(taskId, tenantId);
+		} finally {
+			invalidateReads(tenantId);
+		}
+		if (deleted == 0) {
+			throw new TaskNotFoundException(String.format("No task with id %s is available", taskId));
+		}
+	}
+
+	/** Builds the key identifying a read made for a tenant. */
+	private static String readKey(String tenantId, Object qualifier) {
+		return tenantId + ":" + qualifier;
+	}
+
+	/**
+	 * Discards a tenant's in-flight and cached reads following a write. When the write
+	 * joined a surrounding transaction, such as that of an idempotent create, the reads
+	 * are discarded once it completes, as reads made before it commits do not see the
+	 * write.
+	 */
+	private void invalidateReads(String tenantId) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					discardReads(tenantId);
+				}
+			});
+		} else {
+			discardReads(tenantId);
+		}
+	}
+
+	/** Discards a tenant's in-flight and cached reads. */
+	private void discardReads(String tenantId) {
+		String prefix = readKey(tenantId, "");
+		taskReads.invalidate(key -> key.startsWith(prefix));
+		allTaskReads.invalidate(key -> key.startsWith(prefix));
+		overdueTaskReads.invalidate(key -> key.startsWith(prefix));
 	}
 }
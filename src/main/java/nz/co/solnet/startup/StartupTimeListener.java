@@ -0,0 +1,46 @@
+package nz.co.solnet.startup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Records the time taken for the application to become ready to accept traffic,
+ * including any warm-up, in the {@code tasks.startup.time-to-ready} gauge.
+ */
+@Component
+public class StartupTimeListener implements ApplicationListener<ApplicationReadyEvent> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimeListener.class);
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param meterRegistry the registry used to record the time to ready
+	 */
+	public StartupTimeListener(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationReadyEvent event) {
+		Duration timeTaken = event.getTimeTaken();
+		if (timeTaken == null) {
+			return;
+		}
+		// nothing else references the duration, so the gauge must hold it strongly
+		TimeGauge.builder("tasks.startup.time-to-ready", timeTaken, TimeUnit.MILLISECONDS, Duration::toMillis)
+				.strongReference(true).register(meterRegistry);
+		LOGGER.info("Ready to accept traffic in {} ms", timeTaken.toMillis());
+	}
+}
@@ -0,0 +1,94 @@
+package nz.co.solnet.startup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
+import nz.co.solnet.model.TaskStatus;
+import nz.co.solnet.repository.TaskRepository;
+
+/**
+ * Warms up the application before it reports itself ready to accept traffic.
+ * <p>
+ * Application runners complete before the readiness state changes to
+ * {@code ACCEPTING_TRAFFIC}, so the first requests after a deploy do not pay for
+ * preparing the {@link TaskRepository} queries or for the JIT compilation of the
+ * JSON paths. The queries are run directly against the repository, so they are not
+ * counted in the {@code tasks.reads} metric, and for a tenant that cannot be named
+ * in a request, so no real data is read and nothing is written.
+ */
+@Component
+@ConditionalOnProperty(name = "tasks.warm-up.enabled", havingValue = "true")
+public class WarmUpRunner implements ApplicationRunner {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(WarmUpRunner.class);
+
+	/** The tenant used for warm-up queries, which is never a valid {@code X-Tenant-Id}. */
+	private static final String WARM_UP_TENANT = "#warm-up";
+
+	private final TaskRepository taskRepository;
+
+	private final ObjectMapper objectMapper;
+
+	private final MeterRegistry meterRegistry;
+
+	private final int iterations;
+
+	/**
+	 * Constructor.
+	 * 
+	 * @param taskRepository the repository whose queries are warmed up
+	 * @param objectMapper the mapper used to serialize API requests and responses
+	 * @param meterRegistry the registry used to record the warm-up time
+	 * @param iterations the number of times to exercise each path
+	 */
+	public WarmUpRunner(TaskRepository taskRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+			@Value("${tasks.warm-up.iterations:200}") int iterations) {
+		this.taskRepository = taskRepository;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+		this.iterations = iterations;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws IOException {
+
+		long start = System.nanoTime();
+
+		for (int i = 0; i < iterations; i++) {
+			taskRepository.findDetailsById(0, WARM_UP_TENANT);
+			taskRepository.findAllDetails(WARM_UP_TENANT);
+			taskRepository.findBeforeDueDateWithStatus(WARM_UP_TENANT, LocalDate.now(), TaskStatus.PENDING);
+			taskRepository.findByIdAndTenantId(0, WARM_UP_TENANT);
+			taskRepository.countByTenantId(WARM_UP_TENANT);
+		}
+
+		List<TaskDetails> details = Arrays.asList(
+				new TaskDetails(1, "warm-up", "warm-up task", TaskStatus.PENDING, LocalDate.now(), LocalDate.now()),
+				new TaskDetails(2, "warm-up", null, TaskStatus.COMPLETED, null, LocalDate.now()));
+		for (int i = 0; i < iterations; i++) {
+			objectMapper.writeValueAsBytes(details);
+			Task task = objectMapper.readValue(objectMapper.writeValueAsBytes(details.get(0)), Task.class);
+			objectMapper.writeValueAsBytes(task);
+		}
+
+		long elapsed = System.nanoTime() - start;
+		meterRegistry.timer("tasks.startup.warm-up").record(elapsed, TimeUnit.NANOSECONDS);
+		LOGGER.info("Warmed up in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+	}
+}
@@ -0,0 +1,18 @@
+package nz.co.solnet.tenant;
+
+/**
+ * Exception thrown when a request identifies a tenant using an invalid id.
+ */
+public class InvalidTenantException extends RuntimeException {
+
+	private static final long serialVersionUID = 6391585710429651872L;
+
+	/**
+	 * Constructs a new exception with a detail message.
+	 * 
+	 * @param message the detail message
+	 */
+	public InvalidTenantException(String message) {
+		super(message);
+	}
+}
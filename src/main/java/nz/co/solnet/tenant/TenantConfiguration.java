@@ -0,0 +1,20 @@
+package nz.co.solnet.tenant;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link TenantInterceptor} for the task API, ahead of any other
+ * interceptor so that the tenant is known when rate limits are applied.
+ */
+@Configuration
+public class TenantConfiguration implements WebMvcConfigurer {
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new TenantInterceptor()).addPathPatterns("/v1/tasks/**")
+				.order(Ordered.HIGHEST_PRECEDENCE);
+	}
+}
@@ -0,0 +1,37 @@
+package nz.co.solnet.tenant;
+
+/**
+ * Holds the id of the tenant that the current request is being processed for.
+ */
+public final class TenantContext {
+
+	/** The tenant used when a request does not identify one. */
+	public static final String DEFAULT_TENANT = "default";
+
+	private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
+
+	private TenantContext() {
+	}
+
+	/**
+	 * Returns the id of the current tenant.
+	 * @return the current tenant id, or the default tenant if none is set
+	 */
+	public static String getTenantId() {
+		String tenantId = CURRENT_TENANT.get();
+		return tenantId == null ? DEFAULT_TENANT : tenantId;
+	}
+
+	/**
+	 * Sets the id of the current tenant.
+	 * @param tenantId the tenant id
+	 */
+	public static void setTenantId(String tenantId) {
+		CURRENT_TENANT.set(tenantId);
+	}
+
+	/** Clears the current tenant. */
+	public static void clear() {
+		CURRENT_TENANT.remove();
+	}
+}
@@ -0,0 +1,40 @@
+package nz.co.solnet.tenant;
+
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Resolves the tenant a request is made for from the {@code X-Tenant-Id} header,
+ * and holds it in the {@link TenantContext} while the request is processed.
+ * Requests without the header are made for the default tenant.
+ */
+public class TenantInterceptor implements HandlerInterceptor {
+
+	/** The request header identifying the tenant. */
+	public static final String TENANT_ID_HEADER = "X-Tenant-Id";
+
+	/** The format of valid tenant ids. */
+	private static final Pattern TENANT_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		String tenantId = request.getHeader(TENANT_ID_HEADER);
+		if (tenantId == null) {
+			tenantId = TenantContext.DEFAULT_TENANT;
+		} else if (!TENANT_ID_PATTERN.matcher(tenantId).matches()) {
+			throw new InvalidTenantException(String.format("Invalid tenant id %s", tenantId));
+		}
+		TenantContext.setTenantId(tenantId);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		TenantContext.clear();
+	}
+}
@@ -0,0 +1,18 @@
+package nz.co.solnet.tenant;
+
+/**
+ * Exception thrown when a tenant attempts to hold more tasks than it's quota allows.
+ */
+public class TenantQuotaExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = -1753330617218203367L;
+
+	/**
+	 * Constructs a new exception with a detail message.
+	 * 
+	 * @param message the detail message
+	 */
+	public TenantQuotaExceededException(String message) {
+		super(message);
+	}
+}
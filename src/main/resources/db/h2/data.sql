@@ -1,2 +1,2 @@
-INSERT INTO tasks VALUES (default, 'task to do', 'future pending task', '2023-05-02', 'PENDING', '2023-03-05');
-INSERT INTO tasks VALUES (default, 'an overdue task', 'overdue pending task', '2023-02-08', 'PENDING', '2023-02-01');
+INSERT INTO tasks (id, title, description, due_date, status, creation_date) VALUES (default, 'task to do', 'future pending task', '2023-05-02', 'PENDING', '2023-03-05');
+INSERT INTO tasks (id, title, description, due_date, status, creation_date) VALUES (default, 'an overdue task', 'overdue pending task', '2023-02-08', 'PENDING', '2023-02-01');
@@ -1,4 +1,5 @@
 DROP TABLE tasks IF EXISTS;
+DROP TABLE idempotency_keys IF EXISTS;
 
 CREATE TABLE tasks (
   id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, 
@@ -6,6 +7,17 @@ CREATE TABLE tasks (
   description    VARCHAR(1024), 
   due_date       DATE, 
   status         VARCHAR(10), 
-  creation_date  DATE NOT NULL
+  creation_date  DATE NOT NULL,
+  tenant_id      VARCHAR(64) DEFAULT 'default' NOT NULL
 );
-CREATE INDEX tasks_due_date ON tasks (due_date);
\ No newline at end of file
+CREATE INDEX tasks_tenant_id ON tasks (tenant_id, id);
+CREATE INDEX tasks_tenant_status_due_date ON tasks (tenant_id, status, due_date);
+
+CREATE TABLE idempotency_keys (
+  idempotency_key  VARCHAR(320) PRIMARY KEY, 
+  response         CLOB, 
+  claim_token      VARCHAR(36), 
+  claimed_until    TIMESTAMP, 
+  created          TIMESTAMP NOT NULL
+);
+CREATE INDEX idempotency_keys_created ON idempotency_keys (created);
@@ -0,0 +1,18 @@
+CREATE TABLE IF NOT EXISTS tasks (
+  id             INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, 
+  title          VARCHAR(256) NOT NULL, 
+  description    VARCHAR(1024), 
+  due_date       DATE, 
+  status         VARCHAR(10), 
+  creation_date  DATE NOT NULL,
+  tenant_id      VARCHAR(64) DEFAULT 'default' NOT NULL
+);
+CREATE INDEX IF NOT EXISTS tasks_tenant_id ON tasks (tenant_id, id);
+CREATE INDEX IF NOT EXISTS tasks_tenant_status_due_date ON tasks (tenant_id, status, due_date);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+  idempotency_key  VARCHAR(320) PRIMARY KEY, 
+  response         CLOB, 
+  created          TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idempotency_keys_created ON idempotency_keys (created);
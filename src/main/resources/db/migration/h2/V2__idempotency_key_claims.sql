@@ -0,0 +1,2 @@
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS claim_token VARCHAR(36);
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
@@ -12,6 +12,11 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
 
 import nz.co.solnet.model.Task;
 import nz.co.solnet.model.TaskStatus;
@@ -135,4 +140,79 @@ public class TaskControllerApplicationTest {
 						"[{\"id\":1,\"title\":\"task to do\",\"description\":\"future pending task\",\"status\":\"PENDING\",\"dueDate\":\"2023-05-02\",\"creationDate\":\"2023-03-05\"},"
 								+ "{\"id\":2,\"title\":\"an overdue task\",\"description\":\"overdue pending task\",\"status\":\"PENDING\",\"dueDate\":\"2023-02-08\",\"creationDate\":\"2023-02-01\"}]"));
 	}
+
+	/**
+	 * Verify that tasks are only visible to the tenant they were added for. The context
+	 * is discarded afterwards, since adding a task uses up an id other tests rely on.
+	 */
+	@Test
+	@DirtiesContext
+	public void tenantIsolation() throws Exception {
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-Tenant-Id", "another-tenant");
+
+		Task newTask = new Task();
+		newTask.setTitle("another tenant's task");
+		newTask.setStatus(TaskStatus.PENDING);
+		newTask.setCreationDate(LocalDate.now());
+
+		// add a task for another tenant
+		Task addedTask = restTemplate.exchange("http://localhost:" + port + "/v1/tasks/", HttpMethod.POST,
+				new HttpEntity<>(newTask, headers), Task.class).getBody();
+
+		// verify the task is only visible to the other tenant
+		assertThat(restTemplate.exchange("http://localhost:" + port + "/v1/tasks/", HttpMethod.GET,
+				new HttpEntity<>(headers), Task[].class).getBody()).extracting(Task::getTitle)
+				.containsExactly("another tenant's task");
+		assertThat(this.restTemplate.getForObject("http://localhost:" + port + "/v1/tasks/", Task[].class))
+				.extracting(Task::getTitle).doesNotContain("another tenant's task");
+
+		// verify the task cannot be removed by the default tenant
+		assertThat(restTemplate.exchange("http://localhost:" + port + "/v1/tasks/" + addedTask.getId(),
+				HttpMethod.DELETE, null, Void.class).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(restTemplate.exchange("http://localhost:" + port + "/v1/tasks/", HttpMethod.GET,
+				new HttpEntity<>(headers), Task[].class).getBody()).extracting(Task::getTitle)
+				.containsExactly("another tenant's task");
+
+		// remove the added task
+		restTemplate.exchange("http://localhost:" + port + "/v1/tasks/" + addedTask.getId(), HttpMethod.DELETE,
+				new HttpEntity<>(headers), Void.class);
+
+		// verify the task has been removed
+		assertThat(restTemplate.exchange("http://localhost:" + port + "/v1/tasks/", HttpMethod.GET,
+				new HttpEntity<>(headers), Task[].class).getBody()).isEmpty();
+	}
+
+	/**
+	 * Verify that adding a task carrying the id of another tenant's task creates a new
+	 * task rather than taking over the existing one. The context is discarded
+	 * afterwards, since adding a task uses up an id other tests rely on.
+	 */
+	@Test
+	@DirtiesContext
+	public void createTaskWithAnotherTenantsId() throws Exception {
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("X-Tenant-Id", "another-tenant");
+
+		Task newTask = new Task();
+		newTask.setId(1);
+		newTask.setTitle("hijacked");
+		newTask.setStatus(TaskStatus.COMPLETED);
+		newTask.setCreationDate(LocalDate.now());
+
+		Task addedTask = restTemplate.exchange("http://localhost:" + port + "/v1/tasks/", HttpMethod.POST,
+				new HttpEntity<>(newTask, headers), Task.class).getBody();
+		assertThat(addedTask.getId()).isNotEqualTo(1);
+
+		// verify the default tenant's task is unchanged
+		assertThat(this.restTemplate.getForObject("http://localhost:" + port + "/v1/tasks/1", String.class)).isEqualTo(
+				"{\"id\":1,\"title\":\"task to do\",\"description\":\"future pending task\",\"status\":\"PENDING\",\"dueDate\":\"2023-05-02\",\"creationDate\":\"2023-03-05\"}");
+
+		// verify the other tenant only sees it's new task
+		assertThat(restTemplate.exchange("http://localhost:" + port + "/v1/tasks/", HttpMethod.GET,
+				new HttpEntity<>(headers), Task[].class).getBody()).extracting(Task::getId)
+				.containsExactly(addedTask.getId());
+	}
 }
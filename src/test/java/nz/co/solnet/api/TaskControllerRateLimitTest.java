@@ -0,0 +1,88 @@
+package nz.co.solnet.api;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.assertj.core.util.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import nz.co.solnet.idempotency.IdempotencyStore;
+import nz.co.solnet.model.TaskDetails;
+import nz.co.solnet.model.TaskStatus;
+import nz.co.solnet.service.TaskService;
+
+/**
+ * Unit tests for the rate limits applied to {@link TaskController}, where the budget
+ * for expensive operations does not refill while a test is running.
+ */
+@WebMvcTest(value = TaskController.class, properties = "tasks.rate-limit.expensive.requests-per-second=0.001")
+public class TaskControllerRateLimitTest {
+
+	/** The task id to use for testing. */
+	private static final int TEST_TASK_ID = 1;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	/** Mock instance of the task service that the {@code TaskController} will use. */
+	@MockBean
+	private TaskService tasksService;
+
+	/** Mock instance of the idempotency store that the {@code TaskController} will use. */
+	@MockBean
+	private IdempotencyStore idempotencyStore;
+
+	@BeforeEach
+	void setup() {
+		TaskDetails taskDetails = new TaskDetails(TEST_TASK_ID, "a task to do", "task description",
+				TaskStatus.PENDING, LocalDate.now().plusDays(2), LocalDate.now());
+		given(this.tasksService.getTaskById(TEST_TASK_ID)).willReturn(Optional.of(taskDetails));
+		given(this.tasksService.getTasks()).willReturn(Lists.newArrayList(taskDetails));
+	}
+
+	/** Verify that a client exceeding it's budget for expensive operations receives HTTP 429. */
+	@Test
+	void testExpensiveOperationsRateLimited() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			mockMvc.perform(get("/v1/tasks/").with(remoteAddress("10.0.0.1"))).andExpect(status().isOk());
+		}
+		mockMvc.perform(get("/v1/tasks/").with(remoteAddress("10.0.0.1")))
+				.andExpect(status().isTooManyRequests()).andExpect(header().exists("Retry-After"));
+
+		// cheap operations have a separate budget
+		mockMvc.perform(get("/v1/tasks/{id}", TEST_TASK_ID).with(remoteAddress("10.0.0.1")))
+				.andExpect(status().isOk());
+	}
+
+	/** Verify that a client cannot escape it's budget by sending a new API key with each request. */
+	@Test
+	void testRotatingApiKeysRateLimited() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			mockMvc.perform(get("/v1/tasks/").with(remoteAddress("10.0.0.2")).header("X-API-Key", "key-" + i))
+					.andExpect(status().isOk());
+		}
+		mockMvc.perform(get("/v1/tasks/").with(remoteAddress("10.0.0.2")).header("X-API-Key", "key-10"))
+				.andExpect(status().isTooManyRequests());
+	}
+
+	/**
+	 * Utility method for making a request from the given remote address.
+	 */
+	private static RequestPostProcessor remoteAddress(String address) {
+		return request -> {
+			request.setRemoteAddr(address);
+			return request;
+		};
+	}
+}
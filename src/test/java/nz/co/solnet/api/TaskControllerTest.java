@@ -1,6 +1,7 @@
 package nz.co.solnet.api;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -12,6 +13,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.time.LocalDate;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,7 +29,9 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 
+import nz.co.solnet.idempotency.IdempotencyStore;
 import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
 import nz.co.solnet.model.TaskStatus;
 import nz.co.solnet.service.TaskService;
 
@@ -51,6 +55,10 @@ public class TaskControllerTest {
 	@MockBean
 	private TaskService tasksServicetasks;
 
+	/** Mock instance of the idempotency store that the {@code TaskController} will use. */
+	@MockBean
+	private IdempotencyStore idempotencyStore;
+
 	/** A {@code Task} instance available for testing purposes. */
 	private Task task() {
 		Task task = new Task();
@@ -64,12 +72,20 @@ public class TaskControllerTest {
 		return task;
 	};
 
+	/** A read-only view of the {@code Task} available for testing purposes. */
+	private TaskDetails taskDetails() {
+		Task task = task();
+		return new TaskDetails(task.getId(), task.getTitle(), task.getDescription(), task.getStatus(),
+				task.getDueDate(), task.getCreationDate());
+	}
+
 	@BeforeEach
 	void setup() {
 		Task task = task();
-		given(this.tasksServicetasks.getTaskById(TEST_TASK_ID)).willReturn(Optional.of(task));
-		given(this.tasksServicetasks.getTasks()).willReturn(Lists.newArrayList(task));
-		given(this.tasksServicetasks.getOverdueTasks()).willReturn(Lists.newArrayList(task));
+		TaskDetails taskDetails = taskDetails();
+		given(this.tasksServicetasks.getTaskById(TEST_TASK_ID)).willReturn(Optional.of(taskDetails));
+		given(this.tasksServicetasks.getTasks()).willReturn(Lists.newArrayList(taskDetails));
+		given(this.tasksServicetasks.getOverdueTasks()).willReturn(Lists.newArrayList(taskDetails));
 		given(this.tasksServicetasks.updateTask(any(Integer.class), any(Task.class))).willReturn(task);
 		given(this.tasksServicetasks.createTask(any(Task.class))).willReturn(task);
 	}
@@ -106,6 +122,14 @@ public class TaskControllerTest {
 				.andExpect(jsonPath("$[0].status").value("PENDING"));
 	}
 
+	/** Verify that an error is returned when a request identifies a tenant using an invalid id. */
+	@Test
+	void testInvalidTenant() throws Exception {
+		mockMvc.perform(get("/v1/tasks/").header("X-Tenant-Id", "not a tenant"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().json("{'errors':['Invalid tenant id not a tenant']}"));
+	}
+
 	/** Verify that the operation to delete a single task if successful and returns HTTP 200. */
 	@Test
 	public void testDelete() throws Exception {
@@ -145,6 +169,38 @@ public class TaskControllerTest {
 		Mockito.verify(tasksServicetasks).createTask(any(Task.class));
 	}
 
+	/** Verify that a task added with an idempotency key is created through the idempotency store. */
+	@Test
+	@SuppressWarnings("unchecked")
+	void testCreateWithIdempotencyKey() throws Exception {
+		given(this.idempotencyStore.execute(eq("default:create-1"), any()))
+				.willAnswer(invocation -> invocation.getArgument(1, Supplier.class).get());
+
+		mockMvc.perform(post("/v1/tasks/").header(IdempotencyStore.IDEMPOTENCY_KEY_HEADER, "create-1")
+				.contentType(MediaType.APPLICATION_JSON).content(toJsonString(task()))).andExpect(status().isOk())
+				.andExpect(jsonPath("$.id").value(TEST_TASK_ID));
+
+		Mockito.verify(idempotencyStore).execute(eq("default:create-1"), any());
+		Mockito.verify(tasksServicetasks).createTask(any(Task.class));
+	}
+
+	/** Verify that an error is returned when attempting to add a task with a malformed idempotency key. */
+	@Test
+	void testCreateWithInvalidIdempotencyKey() throws Exception {
+		StringBuilder longKey = new StringBuilder();
+		for (int i = 0; i < 256; i++) {
+			longKey.append('k');
+		}
+
+		for (String key : new String[] { longKey.toString(), "a key" }) {
+			mockMvc.perform(post("/v1/tasks/").header(IdempotencyStore.IDEMPOTENCY_KEY_HEADER, key)
+					.contentType(MediaType.APPLICATION_JSON).content(toJsonString(task())))
+					.andExpect(status().isBadRequest())
+					.andExpect(content().json("{'errors':['Idempotency-Key must be at most 255 visible ASCII characters']}"));
+		}
+
+		Mockito.verifyNoInteractions(idempotencyStore, tasksServicetasks);
+	}
 	
 	/** Verify that an error is returned when attempting to add a task with incomplete information. */
 	@Test
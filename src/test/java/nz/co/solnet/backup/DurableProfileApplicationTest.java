@@ -0,0 +1,83 @@
+package nz.co.solnet.backup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import org.h2.tools.Restore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskStatus;
+
+/**
+ * These tests start the application with a durable, file-backed database held in
+ * a new directory for each run.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "tasks.durable.directory=./target/durable-test-${random.uuid}")
+@ActiveProfiles("durable")
+public class DurableProfileApplicationTest {
+
+	/** Assigns a random port to start the server on. */
+	@Value(value = "${local.server.port}")
+	private int port;
+
+	/** The random port the actuator endpoints are served on. */
+	@Value(value = "${local.management.port}")
+	private int managementPort;
+
+	/** The rest-template automatically provided by Spring Boot. */
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	/** The credentials of the application's database, which are also those of the restored backup. */
+	@Autowired
+	private DataSourceProperties dataSourceProperties;
+
+	/** Verify that an online backup of the database can be downloaded and restored. */
+	@Test
+	public void backup() throws Exception {
+
+		Task newTask = new Task();
+		newTask.setTitle("a durable task");
+		newTask.setStatus(TaskStatus.PENDING);
+		newTask.setCreationDate(LocalDate.now());
+		restTemplate.postForObject("http://localhost:" + port + "/v1/tasks/", newTask, Task.class);
+
+		byte[] backup = restTemplate.getForObject("http://127.0.0.1:" + managementPort + "/actuator/backup",
+				byte[].class);
+
+		// restore the backup into a new directory and verify it holds the added task
+		Path directory = Paths.get("target", "durable-restore-" + UUID.randomUUID());
+		Files.createDirectories(directory);
+		Path zip = directory.resolve("backup.zip");
+		Files.write(zip, backup);
+		Restore.execute(zip.toString(), directory.toString(), "tasks");
+
+		JdbcTemplate restored = new JdbcTemplate(
+				new DriverManagerDataSource("jdbc:h2:file:./" + directory.resolve("tasks"),
+				dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword()));
+		assertThat(restored.queryForList("SELECT title FROM tasks", String.class)).containsExactly("a durable task");
+	}
+
+	/** Verify that the actuator endpoints, including the backup, are not served on the application port. */
+	@Test
+	public void backupNotOnApplicationPort() throws Exception {
+		assertThat(restTemplate.getForEntity("http://localhost:" + port + "/actuator/backup", String.class)
+				.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+}
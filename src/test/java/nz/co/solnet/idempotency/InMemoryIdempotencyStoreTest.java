@@ -0,0 +1,138 @@
+package nz.co.solnet.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import nz.co.solnet.model.Task;
+
+/**
+ * Unit tests for {@link InMemoryIdempotencyStore}.
+ */
+public class InMemoryIdempotencyStoreTest {
+
+	/** Creates a {@code Task} with the given id, counting each creation. */
+	private static Task create(AtomicInteger counter, int id) {
+		counter.incrementAndGet();
+		Task task = new Task();
+		task.setId(id);
+		return task;
+	}
+
+	/** Verify that a repeated key returns the stored response without executing again. */
+	@Test
+	void testRepeatedKeyReturnsStoredResponse() {
+		InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(1), 10);
+		AtomicInteger executions = new AtomicInteger();
+
+		Task first = store.execute("key", () -> create(executions, 1));
+		Task second = store.execute("key", () -> create(executions, 2));
+
+		assertThat(second).isSameAs(first);
+		assertThat(executions).hasValue(1);
+	}
+
+	/** Verify that concurrent requests with the same key share a single execution. */
+	@Test
+	void testConcurrentRequestsExecuteOnce() throws Exception {
+		InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(1), 10);
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		try {
+			List<Future<Task>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> store.execute("key", () -> {
+					try {
+						release.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					return create(executions, 1);
+				})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			Task expected = results.get(0).get(5, TimeUnit.SECONDS);
+			for (Future<Task> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(expected);
+			}
+			assertThat(executions).hasValue(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Verify that a failed execution is not stored, so the key may be retried. */
+	@Test
+	void testFailureIsNotStored() {
+		InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(1), 10);
+		AtomicInteger executions = new AtomicInteger();
+
+		assertThatThrownBy(() -> store.execute("key", () -> {
+			throw new IllegalStateException("failed");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(store.execute("key", () -> create(executions, 1)).getId()).isEqualTo(1);
+		assertThat(executions).hasValue(1);
+	}
+
+	/** Verify that an execution failing with an {@code Error} is not stored, so the key may be retried. */
+	@Test
+	void testErrorIsNotStored() throws Exception {
+		InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(1), 10);
+		AtomicInteger executions = new AtomicInteger();
+
+		assertThatThrownBy(() -> store.execute("key", () -> {
+			throw new AssertionError("failed");
+		})).isInstanceOf(AssertionError.class);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Task> retry = executor.submit(() -> store.execute("key", () -> create(executions, 1)));
+			assertThat(retry.get(5, TimeUnit.SECONDS).getId()).isEqualTo(1);
+			assertThat(executions).hasValue(1);
+			assertThat(store.size()).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Verify that expired responses are evicted and the key executes again. */
+	@Test
+	void testExpiredEntryExecutesAgain() throws Exception {
+		InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMillis(10), 10);
+		AtomicInteger executions = new AtomicInteger();
+
+		store.execute("key", () -> create(executions, 1));
+		Thread.sleep(50);
+		assertThat(store.execute("key", () -> create(executions, 2)).getId()).isEqualTo(2);
+		assertThat(executions).hasValue(2);
+	}
+
+	/** Verify that the store never holds more than the maximum number of entries. */
+	@Test
+	void testStoreIsBounded() {
+		InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMinutes(1), 3);
+		AtomicInteger executions = new AtomicInteger();
+
+		for (int i = 0; i < 10; i++) {
+			store.execute("key-" + i, () -> create(executions, 1));
+		}
+
+		assertThat(store.size()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,175 @@
+package nz.co.solnet.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskStatus;
+
+/**
+ * Unit tests for {@link JdbcIdempotencyStore}, using an embedded H2 database
+ * shared by several store instances to stand in for application instances.
+ */
+public class JdbcIdempotencyStoreTest {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private final AtomicInteger executions = new AtomicInteger();
+
+	@BeforeEach
+	void setup() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+				.addScript("db/h2/schema.sql").build();
+		jdbcTemplate = new JdbcTemplate(database);
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	/** Creates a store instance, as a separate application instance would. */
+	private JdbcIdempotencyStore store(Duration inFlightTimeout) {
+		return new JdbcIdempotencyStore(jdbcTemplate, new DataSourceTransactionManager(database),
+				new ObjectMapper().findAndRegisterModules(), Duration.ofHours(1), 10, inFlightTimeout);
+	}
+
+	/** Creates a {@code Task}, counting each creation. */
+	private Task create() {
+		executions.incrementAndGet();
+		Task task = new Task();
+		task.setId(7);
+		task.setTitle("a task");
+		task.setStatus(TaskStatus.PENDING);
+		task.setCreationDate(LocalDate.of(2023, 3, 5));
+		return task;
+	}
+
+	/** Inserts a claim on a key with no response, held until the given time. */
+	private void insertClaim(String key, Instant claimedUntil) {
+		jdbcTemplate.update(
+				"INSERT INTO idempotency_keys (idempotency_key, claim_token, claimed_until, created) VALUES (?, ?, ?, ?)",
+				key, "another-instance", Timestamp.from(claimedUntil), Timestamp.from(Instant.now()));
+	}
+
+	private int countClaims(String key) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys WHERE idempotency_key = ?",
+				Integer.class, key);
+	}
+
+	/** Verify that a stored response is read back by another instance without executing again. */
+	@Test
+	void testStoredResponseIsShared() {
+		store(Duration.ofSeconds(10)).execute("key", this::create);
+
+		Task stored = store(Duration.ofSeconds(10)).execute("key", this::create);
+
+		assertThat(executions).hasValue(1);
+		assertThat(stored.getId()).isEqualTo(7);
+		assertThat(stored.getTitle()).isEqualTo("a task");
+		assertThat(stored.getStatus()).isEqualTo(TaskStatus.PENDING);
+		assertThat(stored.getCreationDate()).isEqualTo(LocalDate.of(2023, 3, 5));
+	}
+
+	/** Verify that another instance waits for the response of a key claimed while it is in flight. */
+	@Test
+	void testWaitsForInFlightClaim() throws Exception {
+		CountDownLatch claimed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			Future<Task> first = executor.submit(() -> store(Duration.ofSeconds(10)).execute("key", () -> {
+				claimed.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return create();
+			}));
+			claimed.await(5, TimeUnit.SECONDS);
+			Future<Task> second = executor.submit(() -> store(Duration.ofSeconds(10)).execute("key", this::create));
+
+			Thread.sleep(200);
+			assertThat(second.isDone()).isFalse();
+			release.countDown();
+
+			assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo(7);
+			assertThat(second.get(5, TimeUnit.SECONDS).getId()).isEqualTo(7);
+			assertThat(executions).hasValue(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Verify that a conflict is reported while another instance holds an unexpired claim. */
+	@Test
+	void testConflictWhileClaimHeld() {
+		insertClaim("key", Instant.now().plusSeconds(3600));
+
+		assertThatThrownBy(() -> store(Duration.ofMillis(100)).execute("key", this::create))
+				.isInstanceOf(IdempotencyConflictException.class);
+		assertThat(executions).hasValue(0);
+	}
+
+	/** Verify that a claim abandoned by another instance is taken over once it's lease expires. */
+	@Test
+	void testExpiredClaimIsTakenOver() {
+		insertClaim("key", Instant.now().minusSeconds(1));
+
+		assertThat(store(Duration.ofSeconds(10)).execute("key", this::create).getId()).isEqualTo(7);
+		assertThat(executions).hasValue(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT response FROM idempotency_keys WHERE idempotency_key = ?",
+				String.class, "key")).isNotNull();
+	}
+
+	/** Verify that a failed execution releases the claim, so the key may be retried. */
+	@Test
+	void testFailureReleasesClaim() {
+		assertThatThrownBy(() -> store(Duration.ofSeconds(10)).execute("key", () -> {
+			throw new IllegalStateException("failed");
+		})).isInstanceOf(IllegalStateException.class);
+		assertThat(countClaims("key")).isZero();
+
+		assertThat(store(Duration.ofSeconds(10)).execute("key", this::create).getId()).isEqualTo(7);
+		assertThat(executions).hasValue(1);
+	}
+
+	/** Verify that the action is rolled back if it's response cannot be stored under the claim. */
+	@Test
+	void testLostClaimRollsBackAction() {
+		assertThatThrownBy(() -> store(Duration.ofSeconds(10)).execute("key", () -> {
+			jdbcTemplate.update("INSERT INTO tasks (title, creation_date) VALUES ('a task', CURRENT_DATE)");
+			jdbcTemplate.update("UPDATE idempotency_keys SET claim_token = 'another-instance'");
+			return create();
+		})).isInstanceOf(IdempotencyConflictException.class);
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class)).isZero();
+		assertThat(countClaims("key")).isZero();
+	}
+}
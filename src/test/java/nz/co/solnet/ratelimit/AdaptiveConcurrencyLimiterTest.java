@@ -0,0 +1,77 @@
+package nz.co.solnet.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+	private static final long TARGET_LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+	/** Verify that requests over the concurrency limit are rejected. */
+	@Test
+	void testRejectsOverLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_LATENCY, 0.5);
+
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isTrue();
+		assertThat(limiter.tryAcquire()).isFalse();
+		assertThat(limiter.getInFlight()).isEqualTo(2);
+	}
+
+	/** Verify that the limit shrinks when latency exceeds the target, down to the minimum. */
+	@Test
+	void testLimitShrinksOnSlowRequests() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 3, 10, TARGET_LATENCY, 0.5);
+		long now = System.nanoTime() + 1;
+
+		limiter.tryAcquire();
+		limiter.release(now, now + TARGET_LATENCY * 2);
+		assertThat(limiter.getLimit()).isEqualTo(4);
+
+		now += TARGET_LATENCY * 3;
+		limiter.tryAcquire();
+		limiter.release(now, now + TARGET_LATENCY * 2);
+		assertThat(limiter.getLimit()).isEqualTo(3);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	/** Verify that a stall affecting many in-flight requests only shrinks the limit once. */
+	@Test
+	void testLimitShrinksOncePerStall() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, TARGET_LATENCY, 0.9);
+		long admitted = System.nanoTime() + 1;
+
+		for (int i = 0; i < 20; i++) {
+			limiter.tryAcquire();
+		}
+		for (int i = 0; i < 20; i++) {
+			limiter.release(admitted, admitted + TARGET_LATENCY * 2 + i);
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(18);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	/** Verify that the limit grows when a well used limit sees fast requests, up to the maximum. */
+	@Test
+	void testLimitGrowsOnFastRequests() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, TARGET_LATENCY, 0.5);
+		long now = System.nanoTime();
+
+		limiter.tryAcquire();
+		limiter.tryAcquire();
+		limiter.release(now, now + TARGET_LATENCY / 2);
+		assertThat(limiter.getLimit()).isEqualTo(3);
+
+		limiter.tryAcquire();
+		limiter.tryAcquire();
+		limiter.release(now, now + TARGET_LATENCY / 2);
+		assertThat(limiter.getLimit()).isEqualTo(3);
+	}
+}
@@ -0,0 +1,48 @@
+package nz.co.solnet.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link TokenBucket}.
+ */
+public class TokenBucketTest {
+
+	/** A fixed starting time, chosen to be negative as {@code System.nanoTime()} may be. */
+	private static final long START = -TimeUnit.HOURS.toNanos(1);
+
+	/** Verify that a full bucket permits a burst of requests up to it's capacity. */
+	@Test
+	void testBurstUpToCapacity() {
+		TokenBucket bucket = new TokenBucket(10, 5, START);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(bucket.tryAcquire(START)).isZero();
+		}
+		assertThat(bucket.tryAcquire(START)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+	}
+
+	/** Verify that tokens are added back to the bucket at the configured rate. */
+	@Test
+	void testRefill() {
+		TokenBucket bucket = new TokenBucket(10, 1, START);
+
+		assertThat(bucket.tryAcquire(START)).isZero();
+		assertThat(bucket.tryAcquire(START + TimeUnit.MILLISECONDS.toNanos(50))).isPositive();
+		assertThat(bucket.tryAcquire(START + TimeUnit.MILLISECONDS.toNanos(100))).isZero();
+	}
+
+	/** Verify that a bucket is reported as full once all tokens have been added back. */
+	@Test
+	void testIsFull() {
+		TokenBucket bucket = new TokenBucket(10, 2, START);
+
+		assertThat(bucket.isFull(START)).isTrue();
+		bucket.tryAcquire(START);
+		assertThat(bucket.isFull(START)).isFalse();
+		assertThat(bucket.isFull(START + TimeUnit.MILLISECONDS.toNanos(100))).isTrue();
+	}
+}
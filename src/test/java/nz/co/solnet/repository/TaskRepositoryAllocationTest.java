@@ -0,0 +1,120 @@
+package nz.co.solnet.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
+import nz.co.solnet.model.TaskStatus;
+
+/**
+ * Compares the memory allocated by reading, and serializing, a tenant's tasks as
+ * {@link TaskDetails} projections against reading them as managed {@link Task}
+ * entities, measured with the allocated bytes counter of the JVM's thread MXBean.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.NONE, properties = "spring.datasource.url=jdbc:h2:mem:allocationtest")
+public class TaskRepositoryAllocationTest {
+
+	/** The tenant the measured tasks belong to. */
+	private static final String TENANT_ID = "allocation";
+
+	/** The number of tasks read by each query. */
+	private static final int TASKS = 1000;
+
+	/** The number of reads made before measuring, so the measured reads run compiled code. */
+	private static final int WARM_UP_READS = 200;
+
+	/** The number of reads measured. */
+	private static final int MEASURED_READS = 200;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private TransactionTemplate readOnlyTransaction;
+
+	@BeforeEach
+	void setup() {
+		readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+
+		if (taskRepository.countByTenantId(TENANT_ID) == 0) {
+			for (int i = 0; i < TASKS; i++) {
+				Task task = new Task();
+				task.setTenantId(TENANT_ID);
+				task.setTitle("task " + i);
+				task.setDescription("description of task " + i);
+				task.setStatus(TaskStatus.PENDING);
+				task.setCreationDate(LocalDate.now().minusDays(30));
+				task.setDueDate(LocalDate.now().plusDays(i % 20 - 10));
+				taskRepository.save(task);
+			}
+		}
+	}
+
+	/** Verify that listing a tenant's tasks as projections allocates less than as entities. */
+	@Test
+	void findAllDetailsAllocatesLessThanEntities() throws Exception {
+		long entities = allocatedBytesPerRead(() -> readOnlyTransaction.execute(status -> entityManager
+				.createQuery("SELECT task FROM Task task WHERE task.tenantId = :tenantId ORDER BY task.id", Task.class)
+				.setParameter("tenantId", TENANT_ID).getResultList()));
+		long details = allocatedBytesPerRead(() -> taskRepository.findAllDetails(TENANT_ID));
+
+		assertThat(details).isLessThan(entities);
+	}
+
+	/** Verify that listing a tenant's overdue tasks as projections allocates less than as entities. */
+	@Test
+	void findBeforeDueDateWithStatusAllocatesLessThanEntities() throws Exception {
+		long entities = allocatedBytesPerRead(() -> readOnlyTransaction.execute(status -> entityManager
+				.createQuery("SELECT task FROM Task task WHERE task.tenantId = :tenantId AND task.status = :status "
+						+ "AND task.dueDate <= :date ORDER BY task.dueDate DESC", Task.class)
+				.setParameter("tenantId", TENANT_ID).setParameter("status", TaskStatus.PENDING)
+				.setParameter("date", LocalDate.now()).getResultList()));
+		long details = allocatedBytesPerRead(
+				() -> taskRepository.findBeforeDueDateWithStatus(TENANT_ID, LocalDate.now(), TaskStatus.PENDING));
+
+		assertThat(details).isLessThan(entities);
+	}
+
+	/** Measures the bytes allocated by the current thread for each read and serialization of the result. */
+	private long allocatedBytesPerRead(Supplier<List<?>> read) throws Exception {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		for (int i = 0; i < WARM_UP_READS; i++) {
+			assertThat(objectMapper.writeValueAsBytes(read.get())).isNotEmpty();
+		}
+
+		long before = threads.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_READS; i++) {
+			objectMapper.writeValueAsBytes(read.get());
+		}
+		return (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_READS;
+	}
+}
@@ -0,0 +1,123 @@
+package nz.co.solnet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link SingleFlight}.
+ */
+public class SingleFlightTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private double count(String outcome) {
+		return meterRegistry.get("tasks.reads").tag("query", "test").tag("outcome", outcome).counter().count();
+	}
+
+	/** Verify that concurrent reads for the same key share a single loader call. */
+	@Test
+	void testConcurrentReadsAreCoalesced() throws Exception {
+		SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", Duration.ZERO, meterRegistry);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> singleFlight.execute(1, () -> {
+					loads.incrementAndGet();
+					try {
+						release.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					return "result";
+				})));
+			}
+			Thread.sleep(100);
+			release.countDown();
+
+			for (Future<String> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+			}
+			assertThat(loads).hasValue(1);
+			assertThat(count("executed")).isEqualTo(1);
+			assertThat(count("coalesced")).isEqualTo(7);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/** Verify that without a cache window completed reads are not shared. */
+	@Test
+	void testSequentialReadsWithoutCacheWindow() {
+		SingleFlight<Integer, Integer> singleFlight = new SingleFlight<>("test", Duration.ZERO, meterRegistry);
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThat(singleFlight.execute(1, loads::incrementAndGet)).isEqualTo(1);
+		assertThat(singleFlight.execute(1, loads::incrementAndGet)).isEqualTo(2);
+	}
+
+	/** Verify that completed reads are shared within the cache window, until invalidated. */
+	@Test
+	void testCacheWindow() {
+		SingleFlight<Integer, Integer> singleFlight = new SingleFlight<>("test", Duration.ofMinutes(1),
+				meterRegistry);
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThat(singleFlight.execute(1, loads::incrementAndGet)).isEqualTo(1);
+		assertThat(singleFlight.execute(1, loads::incrementAndGet)).isEqualTo(1);
+		assertThat(singleFlight.execute(2, loads::incrementAndGet)).isEqualTo(2);
+
+		singleFlight.invalidate();
+		assertThat(singleFlight.execute(1, loads::incrementAndGet)).isEqualTo(3);
+	}
+
+	/** Verify that a failed read is not shared with later callers. */
+	@Test
+	void testFailureIsNotCached() {
+		SingleFlight<Integer, Integer> singleFlight = new SingleFlight<>("test", Duration.ofMinutes(1),
+				meterRegistry);
+
+		assertThatThrownBy(() -> singleFlight.execute(1, () -> {
+			throw new IllegalStateException("failed");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(singleFlight.execute(1, () -> 1)).isEqualTo(1);
+	}
+
+	/** Verify that a read failing with an {@code Error} does not leave later callers waiting. */
+	@Test
+	void testErrorIsNotCached() throws Exception {
+		SingleFlight<Integer, Integer> singleFlight = new SingleFlight<>("test", Duration.ofMinutes(1),
+				meterRegistry);
+
+		assertThatThrownBy(() -> singleFlight.execute(1, () -> {
+			throw new AssertionError("failed");
+		})).isInstanceOf(AssertionError.class);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> retry = executor.submit(() -> singleFlight.execute(1, () -> 1));
+			assertThat(retry.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package nz.co.solnet.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import nz.co.solnet.idempotency.IdempotencyStore;
+import nz.co.solnet.model.Task;
+import nz.co.solnet.model.TaskDetails;
+import nz.co.solnet.model.TaskStatus;
+
+/**
+ * These tests start the application with cached reads, and writes made in the
+ * transactions of the database idempotency store.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:transactiontest", "tasks.idempotency.store=jdbc",
+		"tasks.reads.cache-window=1m" })
+public class TaskServiceTransactionTest {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private IdempotencyStore idempotencyStore;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/**
+	 * Verify that a read made by another request before an idempotent create commits
+	 * is not served once it has committed.
+	 */
+	@Test
+	void readsBeforeCommitAreDiscarded() throws Exception {
+		assertThat(transactionManager).isInstanceOf(JpaTransactionManager.class);
+
+		Task newTask = new Task();
+		newTask.setTitle("a new task");
+		newTask.setStatus(TaskStatus.PENDING);
+		newTask.setCreationDate(LocalDate.now());
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Task addedTask = idempotencyStore.execute("default:transaction-test", () -> {
+				Task task = taskService.createTask(newTask);
+
+				// the uncommitted task is not visible to, or cached by, another request
+				assertThat(CompletableFuture.supplyAsync(taskService::getTasks, executor).join())
+						.extracting(TaskDetails::getId).doesNotContain(task.getId());
+				return task;
+			});
+
+			assertThat(taskService.getTasks()).extracting(TaskDetails::getId).contains(addedTask.getId());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
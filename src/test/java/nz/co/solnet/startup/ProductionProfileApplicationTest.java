@@ -0,0 +1,54 @@
+package nz.co.solnet.startup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * These tests start the application in the production startup mode, where the
+ * database is created by versioned migrations and the application is warmed up
+ * before reporting itself ready.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "spring.datasource.url=jdbc:h2:mem:prodtest")
+@ActiveProfiles("prod")
+public class ProductionProfileApplicationTest {
+
+	/** Assigns a random port to start the server on. */
+	@Value(value = "${local.server.port}")
+	private int port;
+
+	/** The rest-template automatically provided by Spring Boot. */
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	/** Verify that the schema is created by the migrations, without the sample data. */
+	@Test
+	public void migrationsCreateSchema() throws Exception {
+		assertThat(this.restTemplate.getForObject("http://localhost:" + port + "/v1/tasks/", String.class))
+				.isEqualTo("[]");
+	}
+
+	/** Verify that the application is warmed up and reports itself ready to accept traffic. */
+	@Test
+	public void warmedUpAndReady() throws Exception {
+		assertThat(meterRegistry.get("tasks.startup.warm-up").timer().count()).isEqualTo(1);
+		System.gc();
+		assertThat(meterRegistry.get("tasks.startup.time-to-ready").timeGauge().value()).isPositive();
+		// the warm-up bypasses the service, so it is not counted as overdue task reads
+		assertThat(meterRegistry.get("tasks.reads").tag("query", "overdue").tag("outcome", "executed").counter()
+				.count()).isZero();
+		assertThat(this.restTemplate.getForObject("http://localhost:" + port + "/actuator/health/readiness",
+				String.class)).contains("\"status\":\"UP\"");
+	}
+}